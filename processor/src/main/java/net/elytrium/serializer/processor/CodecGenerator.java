@@ -0,0 +1,467 @@
+/*
+ * Copyright (C) 2023 Elytrium
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package net.elytrium.serializer.processor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+
+/**
+ * Generates the codec source of a single class, mirroring what {@code ClassDescriptor} and {@code FieldDescriptor} resolve at runtime.
+ */
+class CodecGenerator {
+
+  private static final String COMMENT = SerializerCodecProcessor.ANNOTATIONS_PACKAGE + "Comment";
+  private static final String COMMENTS_HOLDER = SerializerCodecProcessor.ANNOTATIONS_PACKAGE + "CommentsHolder";
+  private static final String FALLBACK_NODE_NAMES = SerializerCodecProcessor.ANNOTATIONS_PACKAGE + "FallbackNodeNames";
+  private static final String FINAL = SerializerCodecProcessor.ANNOTATIONS_PACKAGE + "Final";
+  private static final String NEW_LINE = SerializerCodecProcessor.ANNOTATIONS_PACKAGE + "NewLine";
+  private static final String OVERRIDE_NAME_STYLE = SerializerCodecProcessor.ANNOTATIONS_PACKAGE + "OverrideNameStyle";
+  private static final String REGISTER_PLACEHOLDERS = SerializerCodecProcessor.ANNOTATIONS_PACKAGE + "RegisterPlaceholders";
+  private static final String SERIALIZER = SerializerCodecProcessor.ANNOTATIONS_PACKAGE + "Serializer";
+  private static final String TRANSIENT = SerializerCodecProcessor.ANNOTATIONS_PACKAGE + "Transient";
+
+  private final Elements elements;
+  private final Types types;
+  private final TypeElement type;
+  private final String packageName;
+  private final String codecSimpleName;
+  private final List<CodecField> fields = new ArrayList<>();
+  private String unsupportedReason;
+
+  CodecGenerator(ProcessingEnvironment processingEnv, TypeElement type) {
+    this.elements = processingEnv.getElementUtils();
+    this.types = processingEnv.getTypeUtils();
+    this.type = type;
+
+    PackageElement packageElement = this.elements.getPackageOf(type);
+    this.packageName = packageElement.isUnnamed() ? "" : packageElement.getQualifiedName().toString();
+
+    // The binary name keeps the '$' of the nested classes, so a.Foo.Bar and a.Foo_Bar get different codecs.
+    String binaryName = this.elements.getBinaryName(type).toString();
+    this.codecSimpleName = (this.packageName.isEmpty() ? binaryName : binaryName.substring(this.packageName.length() + 1)) + "_SerializerCodec";
+
+    if (!type.getTypeParameters().isEmpty()) {
+      this.unsupportedReason = "the class has type parameters";
+    } else if (!this.isAccessible(type)) {
+      this.unsupportedReason = "the class is not accessible from its package";
+    } else {
+      for (Element member : type.getEnclosedElements()) {
+        if (member.getKind() == ElementKind.FIELD) {
+          this.fields.add(new CodecField((VariableElement) member, this.fields.size()));
+          if (this.unsupportedReason != null) {
+            return;
+          }
+        }
+      }
+
+      if (this.fields.isEmpty()) {
+        this.unsupportedReason = "the class has no fields";
+      }
+    }
+  }
+
+  /**
+   * Returns null if the codec can be generated.
+   */
+  String getUnsupportedReason() {
+    return this.unsupportedReason;
+  }
+
+  String getCodecName() {
+    return this.packageName.isEmpty() ? this.codecSimpleName : this.packageName + "." + this.codecSimpleName;
+  }
+
+  String generate() {
+    String typeName = this.type.getQualifiedName().toString();
+    List<CodecField> visibleFields = new ArrayList<>();
+    boolean primitiveNumbers = false;
+    for (CodecField field : this.fields) {
+      if (field.visible) {
+        visibleFields.add(field);
+      }
+
+      primitiveNumbers |= field.readable && field.primitiveNumber;
+    }
+
+    StringBuilder source = new StringBuilder();
+    if (!this.packageName.isEmpty()) {
+      source.append("package ").append(this.packageName).append(";\n\n");
+    }
+
+    source.append("import java.lang.reflect.Field;\n")
+        .append("import java.util.HashMap;\n")
+        .append("import java.util.Map;\n")
+        .append("import net.elytrium.serializer.SerializerConfig;\n")
+        .append("import net.elytrium.serializer.annotations.Comment;\n")
+        .append("import net.elytrium.serializer.annotations.CommentValue;\n")
+        .append("import net.elytrium.serializer.codec.Comments;\n")
+        .append("import net.elytrium.serializer.codec.SerializableCodec;\n")
+        .append("import net.elytrium.serializer.custom.ClassSerializer;\n")
+        .append("import net.elytrium.serializer.descriptor.NodeNameTable;\n")
+        .append("import net.elytrium.serializer.exceptions.ReflectionException;\n")
+        .append("import net.elytrium.serializer.language.reader.AbstractReader;\n")
+        .append("import net.elytrium.serializer.language.writer.AbstractWriter;\n\n")
+        .append("/**\n * Generated by the serializer annotation processor from {@link ").append(typeName).append("}, do not edit.\n */\n")
+        .append("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n")
+        .append("public final class ").append(this.codecSimpleName).append(" implements SerializableCodec<").append(typeName).append("> {\n\n")
+        .append("  private static final Comment[] NO_COMMENTS = new Comment[0];\n");
+    for (CodecField field : visibleFields) {
+      if (!field.comments.isEmpty()) {
+        source.append("  private static final Comment[] COMMENTS_").append(field.index).append(" = {\n");
+        for (int i = 0; i < field.comments.size(); ++i) {
+          source.append("      ").append(field.comments.get(i)).append(i + 1 == field.comments.size() ? "\n" : ",\n");
+        }
+
+        source.append("  };\n");
+      }
+    }
+
+    source.append("\n  private final Field[] fields;\n")
+        .append("  private final String[] nodeNames;\n")
+        .append("  private final NodeNameTable nodes;\n");
+    if (primitiveNumbers) {
+      source.append("  private final boolean plainNumbers;\n");
+    }
+
+    for (CodecField field : this.fields) {
+      if (field.serializer != null) {
+        source.append("  private final ClassSerializer<Object, Object> serializer").append(field.index).append(";\n");
+      }
+    }
+
+    // Constructor, resolves everything that depends on the config.
+    source.append("\n  public ").append(this.codecSimpleName).append("(SerializerConfig config) {\n")
+        .append("    try {\n")
+        .append("      Class<?> clazz = ").append(typeName).append(".class;\n")
+        .append("      this.fields = new Field[] {\n");
+    for (CodecField field : this.fields) {
+      source.append("          clazz.getDeclaredField(\"").append(field.name).append("\"),\n");
+    }
+
+    source.append("      };\n");
+    for (CodecField field : this.fields) {
+      if (field.serializer != null) {
+        source.append("      this.serializer").append(field.index).append(" = config.getAndCacheSerializer(").append(field.serializer).append(".class);\n");
+      }
+    }
+
+    source.append("    } catch (ReflectiveOperationException e) {\n")
+        .append("      throw new ReflectionException(e);\n")
+        .append("    }\n\n")
+        .append("    this.nodeNames = new String[] {\n");
+    for (CodecField field : this.fields) {
+      source.append("        ").append(field.nodeName).append(",\n");
+    }
+
+    source.append("    };\n")
+        .append("    Map<String, Integer> nodes = new HashMap<>();\n");
+    for (CodecField field : this.fields) {
+      source.append("    nodes.put(this.nodeNames[").append(field.index).append("], ").append(field.index).append(");\n");
+      for (String fallbackNodeName : field.fallbackNodeNames) {
+        source.append("    nodes.put(").append(fallbackNodeName).append(", ").append(field.index).append(");\n");
+      }
+    }
+
+    source.append("    this.nodes = new NodeNameTable(nodes);\n");
+    if (primitiveNumbers) {
+      source.append("    this.plainNumbers = config.getRegisteredSerializer(int.class) == null && config.getRegisteredSerializer(long.class) == null\n")
+          .append("        && config.getRegisteredSerializer(double.class) == null && config.getRegisteredSerializer(float.class) == null\n")
+          .append("        && config.getRegisteredSerializer(short.class) == null && config.getRegisteredSerializer(byte.class) == null;\n");
+    }
+
+    source.append("  }\n\n");
+
+    // Reading.
+    source.append("  @Override\n")
+        .append("  public boolean readNode(AbstractReader reader, ").append(typeName).append(" holder, CharSequence nodeName) {\n")
+        .append("    int node = this.nodes.indexOf(nodeName);\n")
+        .append("    if (node == -1) {\n")
+        .append("      return false;\n")
+        .append("    }\n\n")
+        .append("    switch (node) {\n");
+    for (CodecField field : this.fields) {
+      String owner = "this.fields[" + field.index + "]";
+      source.append("      case ").append(field.index).append(":\n");
+      if (!field.readable) {
+        source.append("        reader.skipNode(").append(owner).append(");\n");
+      } else {
+        String readNodeValue = "(" + field.castType + ") reader.readNodeValue(" + owner + ", holder." + field.name + ", "
+            + (field.serializer == null ? "null" : "this.serializer" + field.index) + ");\n";
+        if (field.primitiveNumber) {
+          source.append("        if (this.plainNumbers) {\n")
+              .append("          holder.").append(field.name).append(" = reader.").append(field.primitiveReader).append('(').append(owner).append(");\n")
+              .append("        } else {\n")
+              .append("          holder.").append(field.name).append(" = ").append(readNodeValue)
+              .append("        }\n");
+        } else {
+          source.append("        holder.").append(field.name).append(" = ").append(readNodeValue);
+        }
+      }
+
+      source.append("        break;\n");
+    }
+
+    source.append("      default:\n")
+        .append("        return false;\n")
+        .append("    }\n\n")
+        .append("    return true;\n")
+        .append("  }\n\n");
+
+    // Writing, the same order as AbstractWriter#writeSerializableObject has.
+    source.append("  @Override\n")
+        .append("  public void write(AbstractWriter writer, Field owner, ").append(typeName).append(" value) {\n");
+    if (visibleFields.isEmpty()) {
+      source.append("    writer.writeEmptyMap();\n");
+    } else {
+      for (int i = 0; i < visibleFields.size(); ++i) {
+        CodecField field = visibleFields.get(i);
+        if (field.newLines != 0) {
+          source.append("    writer.writeNewLines(").append(field.newLines).append(");\n");
+        }
+
+        if (i == 0) {
+          source.append("    writer.writeBeginMap(owner);\n");
+        }
+
+        source.append("    writer.writeMapEntry(this.fields[").append(field.index).append("], this.nodeNames[").append(field.index).append("], writer.serializeNode(")
+            .append(field.serializer == null ? "null" : "this.serializer" + field.index).append(", value.").append(field.name).append("), ")
+            .append(i + 1 != visibleFields.size()).append(", ").append(field.comments.isEmpty() ? "NO_COMMENTS" : "COMMENTS_" + field.index).append(");\n");
+      }
+
+      source.append("    writer.writeEndMap(owner);\n");
+    }
+
+    return source.append("  }\n}\n").toString();
+  }
+
+  private boolean isAccessible(Element element) {
+    for (; element instanceof TypeElement; element = element.getEnclosingElement()) {
+      if (element.getModifiers().contains(Modifier.PRIVATE)) {
+        return false;
+      }
+
+      if (!element.getModifiers().contains(Modifier.PUBLIC) && !this.elements.getPackageOf(element).getQualifiedName().contentEquals(this.packageName)) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  private boolean isAccessible(TypeMirror typeMirror) {
+    if (typeMirror.getKind() == TypeKind.ARRAY) {
+      return this.isAccessible(((ArrayType) typeMirror).getComponentType());
+    }
+
+    return typeMirror.getKind() != TypeKind.DECLARED || this.isAccessible(((DeclaredType) typeMirror).asElement());
+  }
+
+  private String getTypeName(TypeMirror typeMirror) {
+    return switch (typeMirror.getKind()) {
+      case ARRAY -> this.getTypeName(((ArrayType) typeMirror).getComponentType()) + "[]";
+      case DECLARED -> ((TypeElement) ((DeclaredType) typeMirror).asElement()).getQualifiedName().toString();
+      default -> typeMirror.getKind().isPrimitive() ? typeMirror.toString() : this.getTypeName(this.types.erasure(typeMirror));
+    };
+  }
+
+  /**
+   * Returns the type name to cast the read value to, primitives are boxed so the value is unboxed on assignment.
+   */
+  private String getCastTypeName(TypeMirror typeMirror) {
+    return typeMirror.getKind().isPrimitive()
+        ? this.types.boxedClass((PrimitiveType) typeMirror).getQualifiedName().toString()
+        : this.getTypeName(this.types.erasure(typeMirror));
+  }
+
+  /**
+   * Finds the annotation on the field first, and then on the field type, as FieldDescriptor does.
+   */
+  private AnnotationMirror findFieldAnnotation(VariableElement field, String annotationName) {
+    AnnotationMirror annotation = CodecGenerator.findAnnotation(field, annotationName);
+    if (annotation == null) {
+      Element typeElement = this.types.asElement(field.asType());
+      if (typeElement != null) {
+        annotation = CodecGenerator.findAnnotation(typeElement, annotationName);
+      }
+    }
+
+    return annotation;
+  }
+
+  static AnnotationMirror findAnnotation(Element element, String annotationName) {
+    for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+      if (((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName().contentEquals(annotationName)) {
+        return annotation;
+      }
+    }
+
+    return null;
+  }
+
+  private Object getValue(AnnotationMirror annotation, String name) {
+    for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : this.elements.getElementValuesWithDefaults(annotation).entrySet()) {
+      if (entry.getKey().getSimpleName().contentEquals(name)) {
+        return entry.getValue().getValue();
+      }
+    }
+
+    throw new IllegalStateException("Missing annotation value " + name);
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<? extends AnnotationValue> getValues(AnnotationMirror annotation, String name) {
+    return (List<? extends AnnotationValue>) this.getValue(annotation, name);
+  }
+
+  private String getEnumValue(AnnotationMirror annotation, String name) {
+    VariableElement constant = (VariableElement) this.getValue(annotation, name);
+    return this.getTypeName(constant.asType()) + "." + constant.getSimpleName();
+  }
+
+  /**
+   * Collects the comments of the type and then of the field, as FieldDescriptor does.
+   */
+  private void collectComments(Element element, List<String> comments) {
+    for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+      String annotationName = ((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName().toString();
+      if (annotationName.equals(CodecGenerator.COMMENT)) {
+        comments.add(this.toCommentExpression(annotation));
+      } else if (annotationName.equals(CodecGenerator.COMMENTS_HOLDER)) {
+        for (AnnotationValue comment : this.getValues(annotation, "value")) {
+          comments.add(this.toCommentExpression((AnnotationMirror) comment.getValue()));
+        }
+      }
+    }
+  }
+
+  private String toCommentExpression(AnnotationMirror comment) {
+    StringBuilder expression = new StringBuilder("Comments.comment(")
+        .append(this.getEnumValue(comment, "at")).append(", ")
+        .append(this.getValue(comment, "commentValueIndent"));
+    for (AnnotationValue value : this.getValues(comment, "value")) {
+      AnnotationMirror commentValue = (AnnotationMirror) value.getValue();
+      expression.append(", Comments.value(")
+          .append(this.elements.getConstantExpression(this.getValue(commentValue, "value"))).append(", ")
+          .append(this.getEnumValue(commentValue, "type")).append(", ")
+          .append(this.getValue(commentValue, "commentValueIndent")).append(')');
+    }
+
+    return expression.append(')').toString();
+  }
+
+  private final class CodecField {
+
+    private final int index;
+    private final String name;
+    private final boolean visible;
+    private final boolean readable;
+    private final boolean primitiveNumber;
+    private final String primitiveReader;
+    private final String castType;
+    private final String nodeName;
+    private final List<String> fallbackNodeNames = new ArrayList<>();
+    private final String serializer;
+    private final int newLines;
+    private final List<String> comments = new ArrayList<>();
+
+    private CodecField(VariableElement field, int index) {
+      CodecGenerator generator = CodecGenerator.this;
+      TypeMirror fieldType = field.asType();
+      Set<Modifier> modifiers = field.getModifiers();
+      this.index = index;
+      this.name = field.getSimpleName().toString();
+
+      boolean isTransient = modifiers.contains(Modifier.TRANSIENT) || generator.findFieldAnnotation(field, CodecGenerator.TRANSIENT) != null;
+      this.visible = !modifiers.contains(Modifier.STATIC) && !isTransient;
+      this.readable = this.visible && !modifiers.contains(Modifier.FINAL) && generator.findFieldAnnotation(field, CodecGenerator.FINAL) == null;
+      if (this.visible && modifiers.contains(Modifier.PRIVATE)) {
+        generator.unsupportedReason = "the field " + this.name + " is private";
+      } else if (this.readable && !generator.isAccessible(generator.types.erasure(fieldType))) {
+        generator.unsupportedReason = "the type of the field " + this.name + " is not accessible";
+      } else if (generator.findFieldAnnotation(field, CodecGenerator.REGISTER_PLACEHOLDERS) != null) {
+        generator.unsupportedReason = "the field " + this.name + " registers placeholders";
+      }
+
+      AnnotationMirror overrideNameStyle = generator.findFieldAnnotation(field, CodecGenerator.OVERRIDE_NAME_STYLE);
+      String fieldName = generator.elements.getConstantExpression(this.name);
+      this.nodeName = overrideNameStyle == null
+          ? "config.toNodeName(" + fieldName + ")"
+          : "config.toNodeName(" + fieldName + ", " + generator.getEnumValue(overrideNameStyle, "field") + ", " + generator.getEnumValue(overrideNameStyle, "node") + ")";
+      AnnotationMirror fallbackNodeNames = CodecGenerator.findAnnotation(field, CodecGenerator.FALLBACK_NODE_NAMES);
+      if (fallbackNodeNames != null) {
+        for (AnnotationValue fallbackNodeName : generator.getValues(fallbackNodeNames, "value")) {
+          this.fallbackNodeNames.add(generator.elements.getConstantExpression(fallbackNodeName.getValue()));
+        }
+      }
+
+      AnnotationMirror serializer = generator.findFieldAnnotation(field, CodecGenerator.SERIALIZER);
+      if (serializer == null) {
+        this.serializer = null;
+      } else {
+        TypeMirror serializerType = (TypeMirror) generator.getValue(serializer, "value");
+        this.serializer = generator.getTypeName(serializerType);
+        if (!generator.isAccessible(serializerType)) {
+          generator.unsupportedReason = "the serializer of the field " + this.name + " is not accessible";
+        }
+      }
+
+      AnnotationMirror newLine = generator.findFieldAnnotation(field, CodecGenerator.NEW_LINE);
+      this.newLines = newLine == null ? 0 : (Integer) generator.getValue(newLine, "amount");
+
+      TypeKind kind = fieldType.getKind();
+      this.primitiveNumber = kind.isPrimitive() && kind != TypeKind.BOOLEAN && kind != TypeKind.CHAR && this.serializer == null;
+      this.primitiveReader = switch (kind) {
+        case INT -> "readIntValue";
+        case LONG -> "readLongValue";
+        case DOUBLE -> "readDoubleValue";
+        case FLOAT -> "readFloatValue";
+        case SHORT -> "readShortValue";
+        case BYTE -> "readByteValue";
+        default -> null;
+      };
+      this.castType = generator.getCastTypeName(fieldType);
+
+      Element typeElement = generator.types.asElement(fieldType);
+      if (typeElement != null) {
+        generator.collectComments(typeElement, this.comments);
+      }
+
+      generator.collectComments(field, this.comments);
+    }
+  }
+}
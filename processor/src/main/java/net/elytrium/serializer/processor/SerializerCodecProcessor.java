@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2023 Elytrium
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package net.elytrium.serializer.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Set;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+
+/**
+ * Generates the {@code SerializableCodec} of the serializable classes, so they are (de-)serialized without reflection.
+ *
+ * <p>The codecs are generated for the classes annotated with {@code @GenerateCodec}, for the subclasses of {@code AbstractSerializable}
+ * and for the static classes nested into them. The class is left to the reflection if the codec can't access it,
+ * if it registers placeholders or if it has type parameters.
+ */
+@SupportedAnnotationTypes("*")
+public class SerializerCodecProcessor extends AbstractProcessor {
+
+  static final String ANNOTATIONS_PACKAGE = "net.elytrium.serializer.annotations.";
+  private static final String GENERATE_CODEC = SerializerCodecProcessor.ANNOTATIONS_PACKAGE + "GenerateCodec";
+  private static final String ABSTRACT_SERIALIZABLE = "net.elytrium.serializer.language.object.AbstractSerializable";
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    for (Element element : roundEnv.getRootElements()) {
+      if (element.getKind() == ElementKind.CLASS) {
+        this.processType((TypeElement) element, false);
+      }
+    }
+
+    return false;
+  }
+
+  private void processType(TypeElement type, boolean nested) {
+    boolean explicit = CodecGenerator.findAnnotation(type, SerializerCodecProcessor.GENERATE_CODEC) != null;
+    boolean serializable = nested || explicit || this.isSerializable(type);
+    if (serializable) {
+      CodecGenerator generator = new CodecGenerator(this.processingEnv, type);
+      String unsupportedReason = generator.getUnsupportedReason();
+      if (unsupportedReason == null) {
+        this.writeCodec(type, generator);
+      } else if (explicit) {
+        this.processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, "Can't generate the codec, " + unsupportedReason, type);
+      }
+    }
+
+    for (Element member : type.getEnclosedElements()) {
+      if (member.getKind() == ElementKind.CLASS && member.getModifiers().contains(Modifier.STATIC)) {
+        this.processType((TypeElement) member, serializable);
+      }
+    }
+  }
+
+  private boolean isSerializable(TypeElement type) {
+    TypeMirror superclass = type.getSuperclass();
+    while (superclass.getKind() == TypeKind.DECLARED) {
+      TypeElement superclassElement = (TypeElement) ((DeclaredType) superclass).asElement();
+      if (superclassElement.getQualifiedName().contentEquals(SerializerCodecProcessor.ABSTRACT_SERIALIZABLE)) {
+        return true;
+      }
+
+      superclass = superclassElement.getSuperclass();
+    }
+
+    return false;
+  }
+
+  private void writeCodec(TypeElement type, CodecGenerator generator) {
+    try {
+      JavaFileObject file = this.processingEnv.getFiler().createSourceFile(generator.getCodecName(), type);
+      try (Writer writer = file.openWriter()) {
+        writer.write(generator.generate());
+      }
+    } catch (IOException e) {
+      this.processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Can't write the codec: " + e.getMessage(), type);
+    }
+  }
+}
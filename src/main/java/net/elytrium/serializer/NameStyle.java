@@ -86,6 +86,72 @@ public enum NameStyle {
     return this.toMacroCase.apply(fieldName);
   }
 
+  /**
+   * Converts the name from this style to the target style in a single pass, without building the intermediate MACRO_CASE string.
+   * The result is the same as {@code target.fromMacroCase(this.toMacroCase(name))}.
+   */
+  public String convert(String name, NameStyle target) {
+    int length = name.length();
+    for (int i = 0; i < length; ++i) {
+      if (name.charAt(i) > 0x7F) {
+        // Non-ASCII case mapping may change the length of the string, leave it to String#toUpperCase/String#toLowerCase.
+        return target.fromMacroCase(this.toMacroCase(name));
+      }
+    }
+
+    StringBuilder result = new StringBuilder(length + 4);
+    boolean nextCharUppercase = target == NameStyle.CAPITAL_CAMEL_CASE;
+    char previous = 0;
+    for (int i = 0; i < length; ++i) {
+      char character = name.charAt(i);
+      char macroCharacter = switch (this) {
+        case KEBAB_CASE -> character == '-' ? '_' : Character.toUpperCase(character);
+        case CAMEL_CASE, CAPITAL_CAMEL_CASE -> {
+          if ((Character.isUpperCase(character) && Character.isLowerCase(previous))
+              || (Character.isAlphabetic(character) && Character.isDigit(previous))
+              || (Character.isDigit(character) && Character.isAlphabetic(previous))) {
+            nextCharUppercase = target.appendFromMacroCase(result, '_', nextCharUppercase);
+          }
+
+          previous = character;
+          yield Character.toUpperCase(character);
+        }
+        case SNAKE_CASE -> Character.toUpperCase(character);
+        case MACRO_CASE -> character;
+        case COBOL_CASE -> character == '-' ? '_' : character;
+      };
+
+      nextCharUppercase = target.appendFromMacroCase(result, macroCharacter, nextCharUppercase);
+    }
+
+    return result.toString();
+  }
+
+  /**
+   * Appends one MACRO_CASE character converted to this style.
+   *
+   * @return Whether the next character should be uppercase, used by camel case styles.
+   */
+  private boolean appendFromMacroCase(StringBuilder result, char character, boolean nextCharUppercase) {
+    switch (this) {
+      case KEBAB_CASE -> result.append(character == '_' ? '-' : Character.toLowerCase(character));
+      case CAMEL_CASE, CAPITAL_CAMEL_CASE -> {
+        if (character == '_') {
+          return true;
+        }
+
+        result.append(nextCharUppercase ? character : Character.toLowerCase(character));
+        return false;
+      }
+      case SNAKE_CASE -> result.append(Character.toLowerCase(character));
+      case MACRO_CASE -> result.append(character);
+      case COBOL_CASE -> result.append(character == '_' ? '-' : character);
+      default -> throw new IllegalStateException("Unknown name style: " + this);
+    }
+
+    return nextCharUppercase;
+  }
+
   private static String toCamelCase(String value, boolean nextCharUppercase) {
     StringBuilder result = new StringBuilder();
     for (char character : value.toCharArray()) {
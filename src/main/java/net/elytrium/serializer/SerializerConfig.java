@@ -25,18 +25,52 @@ import java.lang.reflect.Type;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import net.elytrium.serializer.annotations.Serializer;
+import net.elytrium.serializer.codec.RuntimeCodec;
+import net.elytrium.serializer.codec.SerializableCodec;
 import net.elytrium.serializer.custom.ClassSerializer;
+import net.elytrium.serializer.custom.PrimitiveCollectionAdapter;
+import net.elytrium.serializer.descriptor.ClassDescriptor;
+import net.elytrium.serializer.descriptor.SerializerChain;
+import net.elytrium.serializer.exceptions.ReflectionException;
 import net.elytrium.serializer.placeholders.PlaceholderReplacer;
+import net.elytrium.serializer.utils.GenericUtils;
 
 public class SerializerConfig {
 
+  private static final int NAME_STYLES = NameStyle.values().length;
+  private static final int NAME_CACHE_SIZE = 256;
+
   public static final SerializerConfig DEFAULT = new SerializerConfig.Builder().build();
 
-  private final Map<Class<? extends PlaceholderReplacer<?, ?>>, PlaceholderReplacer<?, ?>> cachedReplacers = new HashMap<>();
-  private final Map<Class<? extends ClassSerializer<?, ?>>, ClassSerializer<?, ?>> cachedSerializers = new HashMap<>();
+  private final CreationCache<Class<? extends PlaceholderReplacer<?, ?>>, PlaceholderReplacer<?, ?>> cachedReplacers = new CreationCache<>();
+  private final CreationCache<Class<? extends ClassSerializer<?, ?>>, ClassSerializer<?, ?>> cachedSerializers = new CreationCache<>();
+  private final CreationCache<Class<?>, ClassDescriptor> cachedClassDescriptors = new CreationCache<>();
+  private final CreationCache<Class<?>, Optional<SerializableCodec<?>>> cachedCodecs = new CreationCache<>();
+  private final ClassValue<Registered> cachedRegistered = new ClassValue<Registered>() {
+
+    @Override
+    protected Registered computeValue(Class<?> type) {
+      return new Registered(SerializerConfig.this, type);
+    }
+  };
+  private final ClassValue<SerializerChain> cachedSerializerChains = new ClassValue<SerializerChain>() {
+
+    @Override
+    protected SerializerChain computeValue(Class<?> type) {
+      return SerializerChain.of(SerializerConfig.this, type);
+    }
+  };
+  private final Map<ParameterTypesKey, Type[]> cachedParameterTypes = new ConcurrentHashMap<>();
+  private final AtomicReferenceArray<Map<String, String>> cachedNames = new AtomicReferenceArray<>(SerializerConfig.NAME_STYLES * SerializerConfig.NAME_STYLES);
   private final Map<Class<?>, PlaceholderReplacer<?, ?>> registeredReplacers;
   private final Map<Class<?>, ClassSerializer<?, ?>> registeredSerializers;
+  private final Map<Class<?>, PrimitiveCollectionAdapter<?>> registeredPrimitiveCollections;
   private final String lineSeparator;
   private final String doubledLineSeparator;
   private final char[] lineSeparatorChars;
@@ -47,15 +81,20 @@ public class SerializerConfig {
   private final boolean registerPlaceholdersForCollectionEntries;
   private final boolean logMissingFields;
   private final boolean backupOnErrors;
+  private final boolean memoryMappedLoading;
+  private final boolean generatedCodecs;
+  private final boolean runtimeCodecs;
   private final int commentValueIndent;
 
   private SerializerConfig(Map<Class<?>, PlaceholderReplacer<?, ?>> registeredReplacers, Map<Class<?>, ClassSerializer<?, ?>> registeredSerializers,
-      String lineSeparator,
+      Map<Class<?>, PrimitiveCollectionAdapter<?>> registeredPrimitiveCollections, String lineSeparator,
       NameStyle fieldNameStyle, NameStyle nodeNameStyle,
       boolean safeMode, boolean allowUnicode, boolean registerPlaceholdersForCollectionEntries, boolean logMissingFields, boolean backupOnErrors,
-      int commentValueIndent) {
-    this.registeredReplacers = registeredReplacers;
-    this.registeredSerializers = registeredSerializers;
+      boolean memoryMappedLoading, boolean generatedCodecs, boolean runtimeCodecs, int commentValueIndent) {
+    // Copied, as the resolved serializers and replacers are cached per class.
+    this.registeredReplacers = new HashMap<>(registeredReplacers);
+    this.registeredSerializers = new HashMap<>(registeredSerializers);
+    this.registeredPrimitiveCollections = new HashMap<>(registeredPrimitiveCollections);
     this.lineSeparator = lineSeparator;
     this.doubledLineSeparator = lineSeparator + lineSeparator;
     this.lineSeparatorChars = lineSeparator.toCharArray();
@@ -66,6 +105,9 @@ public class SerializerConfig {
     this.registerPlaceholdersForCollectionEntries = registerPlaceholdersForCollectionEntries;
     this.logMissingFields = logMissingFields;
     this.backupOnErrors = backupOnErrors;
+    this.memoryMappedLoading = memoryMappedLoading;
+    this.generatedCodecs = generatedCodecs;
+    this.runtimeCodecs = runtimeCodecs;
     this.commentValueIndent = commentValueIndent;
   }
 
@@ -90,7 +132,7 @@ public class SerializerConfig {
 
     return !field.isEmpty() && Character.isDigit(field.charAt(0))
         ? this.toNodeName('"' + field + '"')
-        : overriddenFieldNameStyle == overriddenNodeNameStyle ? field : overriddenNodeNameStyle.fromMacroCase(overriddenFieldNameStyle.toMacroCase(field));
+        : this.convertName(field, overriddenFieldNameStyle, overriddenNodeNameStyle);
   }
 
   /**
@@ -112,7 +154,31 @@ public class SerializerConfig {
       overriddenNodeNameStyle = this.nodeNameStyle;
     }
 
-    return overriddenFieldNameStyle == overriddenNodeNameStyle ? field : overriddenFieldNameStyle.fromMacroCase(overriddenNodeNameStyle.toMacroCase(field));
+    return this.convertName(field, overriddenNodeNameStyle, overriddenFieldNameStyle);
+  }
+
+  private String convertName(String name, NameStyle from, NameStyle to) {
+    if (from == to) {
+      return name;
+    }
+
+    int index = from.ordinal() * SerializerConfig.NAME_STYLES + to.ordinal();
+    Map<String, String> cache = this.cachedNames.get(index);
+    if (cache == null) {
+      this.cachedNames.compareAndSet(index, null, new ConcurrentHashMap<>());
+      cache = this.cachedNames.get(index);
+    }
+
+    String result = cache.get(name);
+    if (result == null) {
+      result = from.convert(name, to);
+      // Node names of the classes in use fit well below the limit, the rest is converted each time.
+      if (cache.size() < SerializerConfig.NAME_CACHE_SIZE) {
+        cache.put(name, result);
+      }
+    }
+
+    return result;
   }
 
   public PlaceholderReplacer<?, ?> getAndCacheReplacer(Class<? extends PlaceholderReplacer<?, ?>> clazz) throws ReflectiveOperationException {
@@ -122,28 +188,102 @@ public class SerializerConfig {
     }
 
     if (replacer == null) {
-      Constructor<? extends PlaceholderReplacer<?, ?>> constructor = clazz.getDeclaredConstructor();
-      constructor.setAccessible(true);
-      replacer = constructor.newInstance();
-      this.cachedReplacers.put(clazz, replacer);
+      replacer = this.cachedReplacers.create(clazz, () -> {
+        Constructor<? extends PlaceholderReplacer<?, ?>> constructor = clazz.getDeclaredConstructor();
+        constructor.setAccessible(true);
+        return constructor.newInstance();
+      });
     }
 
     return replacer;
   }
 
+  /**
+   * Returns the reflection data of the class, it is computed once per config as the node names depend on it.
+   */
+  public ClassDescriptor getClassDescriptor(Class<?> clazz) {
+    ClassDescriptor descriptor = this.cachedClassDescriptors.get(clazz);
+    if (descriptor == null) {
+      try {
+        descriptor = this.cachedClassDescriptors.create(clazz, () -> new ClassDescriptor(this, clazz));
+      } catch (ReflectiveOperationException e) {
+        throw new ReflectionException(e);
+      }
+    }
+
+    return descriptor;
+  }
+
+  /**
+   * Returns the codec generated by the serializer annotation processor, or the runtime codec if the class has no generated one.
+   * The codec is looked up once per config.
+   *
+   * @return null if the class should be read by reflection.
+   */
+  @Nullable
   @SuppressWarnings("unchecked")
+  public <T> SerializableCodec<T> getSerializableCodec(Class<?> clazz) {
+    if (!this.generatedCodecs && !this.runtimeCodecs) {
+      return null;
+    }
+
+    Optional<SerializableCodec<?>> codec = this.cachedCodecs.get(clazz);
+    if (codec == null) {
+      try {
+        codec = this.cachedCodecs.create(clazz, () -> {
+          SerializableCodec<?> loadedCodec = null;
+          if (this.generatedCodecs) {
+            loadedCodec = this.loadSerializableCodec(clazz);
+          }
+
+          if (loadedCodec == null && this.runtimeCodecs) {
+            loadedCodec = RuntimeCodec.of(this, this.getClassDescriptor(clazz));
+          }
+
+          return Optional.ofNullable(loadedCodec);
+        });
+      } catch (ReflectiveOperationException e) {
+        throw new ReflectionException(e);
+      }
+    }
+
+    return (SerializableCodec<T>) codec.orElse(null);
+  }
+
+  @Nullable
+  private SerializableCodec<?> loadSerializableCodec(Class<?> clazz) {
+    try {
+      // The codec is named after the binary name, the same way the annotation processor names it.
+      Class<?> codecClass = Class.forName(clazz.getName() + "_SerializerCodec", true, clazz.getClassLoader());
+      if (!SerializableCodec.class.isAssignableFrom(codecClass)) {
+        return null;
+      }
+
+      return (SerializableCodec<?>) codecClass.getConstructor(SerializerConfig.class).newInstance(this);
+    } catch (ClassNotFoundException e) {
+      return null;
+    } catch (ReflectiveOperationException e) {
+      throw new ReflectionException(e);
+    }
+  }
+
   public <T, F> ClassSerializer<T, F> getAndCacheSerializer(Serializer serializer) throws ReflectiveOperationException {
-    Class<? extends ClassSerializer<?, ?>> clazz = serializer.value();
+    return this.getAndCacheSerializer(serializer.value());
+  }
+
+  @SuppressWarnings("unchecked")
+  public <T, F> ClassSerializer<T, F> getAndCacheSerializer(Class<? extends ClassSerializer<?, ?>> clazz) throws ReflectiveOperationException {
     var configSerializer = (ClassSerializer<T, F>) this.cachedSerializers.get(clazz);
     if (configSerializer == null) {
       configSerializer = (ClassSerializer<T, F>) this.registeredSerializers.get(clazz);
     }
 
     if (configSerializer == null) {
-      Constructor<? extends ClassSerializer<?, ?>> constructor = clazz.getDeclaredConstructor();
-      constructor.setAccessible(true);
-      configSerializer = (ClassSerializer<T, F>) constructor.newInstance();
-      this.cachedSerializers.put(clazz, configSerializer);
+      configSerializer = (ClassSerializer<T, F>) this.cachedSerializers.create(clazz, () -> {
+        Constructor<? extends ClassSerializer<?, ?>> constructor = clazz.getDeclaredConstructor();
+        constructor.setAccessible(true);
+        return constructor.newInstance();
+      });
     }
 
     return configSerializer;
@@ -152,45 +292,69 @@ public class SerializerConfig {
   @Nullable
   @SuppressWarnings("unchecked")
   public <T, P> PlaceholderReplacer<T, P> getRegisteredReplacer(Class<?> clazz) {
-    while (clazz != null && clazz != Object.class) {
-      var serializer = (PlaceholderReplacer<T, P>) this.registeredReplacers.get(clazz);
-      if (serializer == null) {
-        for (Class<?> classInterface : clazz.getInterfaces()) {
-          serializer = (PlaceholderReplacer<T, P>) this.registeredReplacers.get(classInterface);
-          if (serializer != null) {
-            return serializer;
-          }
-        }
+    return (PlaceholderReplacer<T, P>) this.cachedRegistered.get(clazz).replacer;
+  }
 
-        clazz = clazz.getSuperclass();
-      } else {
-        return serializer;
+  @Nullable
+  @SuppressWarnings("unchecked")
+  public <T, F> ClassSerializer<T, F> getRegisteredSerializer(Class<?> clazz) {
+    return (ClassSerializer<T, F>) this.cachedRegistered.get(clazz).serializer;
+  }
+
+  @Nullable
+  @SuppressWarnings("unchecked")
+  public <C extends Collection<?>> PrimitiveCollectionAdapter<C> getRegisteredPrimitiveCollection(Class<?> clazz) {
+    return (PrimitiveCollectionAdapter<C>) this.cachedRegistered.get(clazz).primitiveCollection;
+  }
+
+  /**
+   * Returns the registered serializers that deserialize the class, resolved once per class.
+   */
+  public SerializerChain getSerializerChain(Class<?> clazz) {
+    return this.cachedSerializerChains.get(clazz);
+  }
+
+  /**
+   * Same as {@link GenericUtils#getParameterType(Class, Type, int)}, but every type argument of the parent is resolved once per type.
+   */
+  public Type getParameterType(Class<?> parent, Type type, int index) {
+    ParameterTypesKey key = new ParameterTypesKey(parent, type);
+    Type[] types = this.cachedParameterTypes.get(key);
+    if (types == null) {
+      types = new Type[parent.getTypeParameters().length];
+      for (int i = 0; i < types.length; ++i) {
+        types[i] = GenericUtils.getParameterType(parent, type, i);
       }
+
+      this.cachedParameterTypes.put(key, types);
     }
 
-    return (PlaceholderReplacer<T, P>) this.registeredReplacers.get(clazz);
+    return types[index];
   }
 
   @Nullable
-  @SuppressWarnings("unchecked")
-  public <T, F> ClassSerializer<T, F> getRegisteredSerializer(Class<?> clazz) {
+  private static <V> V findRegistered(Map<Class<?>, V> registered, Class<?> clazz) {
+    if (registered.isEmpty()) {
+      return null;
+    }
+
     while (clazz != null && clazz != Object.class) {
-      var serializer = (ClassSerializer<T, F>) this.registeredSerializers.get(clazz);
-      if (serializer == null) {
+      V value = registered.get(clazz);
+      if (value == null) {
         for (Class<?> classInterface : clazz.getInterfaces()) {
-          serializer = (ClassSerializer<T, F>) this.registeredSerializers.get(classInterface);
-          if (serializer != null) {
-            return serializer;
+          value = registered.get(classInterface);
+          if (value != null) {
+            return value;
           }
         }
 
         clazz = clazz.getSuperclass();
       } else {
-        return serializer;
+        return value;
       }
     }
 
-    return (ClassSerializer<T, F>) this.registeredSerializers.get(clazz);
+    return registered.get(clazz);
   }
 
   public int getRegisteredSerializers() {
@@ -231,14 +395,152 @@ public class SerializerConfig {
     return this.backupOnErrors;
   }
 
+  public boolean isMemoryMappedLoading() {
+    return this.memoryMappedLoading;
+  }
+
+  public boolean isGeneratedCodecs() {
+    return this.generatedCodecs;
+  }
+
+  public boolean isRuntimeCodecs() {
+    return this.runtimeCodecs;
+  }
+
   public int getCommentValueIndent() {
     return this.commentValueIndent;
   }
 
+  /**
+   * Registered serializer, replacer and primitive collection adapter of a class, null ones are cached as well.
+   */
+  private static final class Registered {
+
+    private final ClassSerializer<?, ?> serializer;
+    private final PlaceholderReplacer<?, ?> replacer;
+    private final PrimitiveCollectionAdapter<?> primitiveCollection;
+
+    private Registered(SerializerConfig config, Class<?> clazz) {
+      this.serializer = SerializerConfig.findRegistered(config.registeredSerializers, clazz);
+      this.replacer = SerializerConfig.findRegistered(config.registeredReplacers, clazz);
+      this.primitiveCollection = SerializerConfig.findRegistered(config.registeredPrimitiveCollections, clazz);
+    }
+  }
+
+  /**
+   * Key of the resolved type arguments, the parent class they belong to and the resolved type.
+   */
+  /**
+   * Creates every value once, while values of different keys are created in parallel.
+   * Waiting threads park instead of blocking on a monitor, so they don't pin virtual threads while the value loads classes.
+   */
+  private static final class CreationCache<K, V> {
+
+    private final Map<K, V> values = new ConcurrentHashMap<>();
+    private final Map<K, Creation<V>> creations = new ConcurrentHashMap<>();
+
+    private V get(K key) {
+      return this.values.get(key);
+    }
+
+    private int size() {
+      return this.values.size();
+    }
+
+    private V create(K key, Factory<V> factory) throws ReflectiveOperationException {
+      Creation<V> creation = new Creation<>(factory);
+      Creation<V> running = this.creations.putIfAbsent(key, creation);
+      if (running == null) {
+        try {
+          // The value may have been published after the lookup of the caller, but before the creation was registered.
+          V value = this.values.get(key);
+          if (value == null) {
+            creation.run();
+            value = creation.getResult();
+            this.values.put(key, value);
+          }
+
+          return value;
+        } finally {
+          this.creations.remove(key, creation);
+        }
+      } else if (running.owner == Thread.currentThread()) {
+        throw new IllegalStateException("Recursive creation of the cached value for " + key);
+      } else {
+        return running.getResult();
+      }
+    }
+  }
+
+  private static final class Creation<V> extends FutureTask<V> {
+
+    private final Thread owner = Thread.currentThread();
+
+    private Creation(Factory<V> factory) {
+      super(factory::create);
+    }
+
+    private V getResult() throws ReflectiveOperationException {
+      boolean interrupted = false;
+      try {
+        while (true) {
+          try {
+            return this.get();
+          } catch (InterruptedException e) {
+            interrupted = true;
+          } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof ReflectiveOperationException exception) {
+              throw exception;
+            } else if (cause instanceof RuntimeException exception) {
+              throw exception;
+            } else if (cause instanceof Error error) {
+              throw error;
+            } else {
+              throw new ReflectionException(cause);
+            }
+          }
+        }
+      } finally {
+        if (interrupted) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    }
+  }
+
+  @FunctionalInterface
+  private interface Factory<V> {
+
+    V create() throws ReflectiveOperationException;
+  }
+
+  private static final class ParameterTypesKey {
+
+    private final Class<?> parent;
+    private final Type type;
+
+    private ParameterTypesKey(Class<?> parent, Type type) {
+      this.parent = parent;
+      this.type = type;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      return other instanceof ParameterTypesKey key && this.parent == key.parent && this.type.equals(key.type);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * this.parent.hashCode() + this.type.hashCode();
+    }
+  }
+
   public static class Builder {
 
     private final Map<Class<?>, PlaceholderReplacer<?, ?>> registeredReplacers = new HashMap<>();
     private final Map<Class<?>, ClassSerializer<?, ?>> registeredSerializers = new HashMap<>();
+    private final Map<Class<?>, PrimitiveCollectionAdapter<?>> registeredPrimitiveCollections = new HashMap<>();
 
     private String lineSeparator = System.lineSeparator();
     private NameStyle fieldNameStyle = NameStyle.CAMEL_CASE;
@@ -254,6 +556,18 @@ public class SerializerConfig {
     private boolean registerPlaceholdersForCollectionEntries = true;
     private boolean logMissingFields = true;
     private boolean backupOnErrors = true;
+    /**
+     * @see SerializerConfig.Builder#setMemoryMappedLoading(boolean)
+     */
+    private boolean memoryMappedLoading = false;
+    /**
+     * @see SerializerConfig.Builder#setGeneratedCodecs(boolean)
+     */
+    private boolean generatedCodecs = true;
+    /**
+     * @see SerializerConfig.Builder#setRuntimeCodecs(boolean)
+     */
+    private boolean runtimeCodecs = false;
     private int commentValueIndent = 0;
 
     public Builder registerReplacer(Collection<PlaceholderReplacer<?, ?>> replacers) {
@@ -297,6 +611,11 @@ public class SerializerConfig {
       return this;
     }
 
+    public Builder registerPrimitiveCollection(PrimitiveCollectionAdapter<?> adapter) {
+      this.registeredPrimitiveCollections.put(adapter.getCollectionClass(), adapter);
+      return this;
+    }
+
     public Builder setFieldNameStyle(NameStyle fieldNameStyle) {
       this.fieldNameStyle = fieldNameStyle;
       return this;
@@ -343,6 +662,35 @@ public class SerializerConfig {
       return this;
     }
 
+    /**
+     * When true, files are loaded through {@link java.nio.channels.FileChannel#map}, which is faster for large files
+     *
+     * <p>Only {@link net.elytrium.serializer.language.object.AbstractSerializable#load(java.nio.file.Path)} maps the file,
+     * {@code reload} streams it since it writes the file right after. The mapping stays alive until it is garbage collected,
+     * so on Windows the file can't be truncated or deleted in the meantime. If another process truncates the file while it is read,
+     * the JVM throws an {@link InternalError}.
+     */
+    public Builder setMemoryMappedLoading(boolean memoryMappedLoading) {
+      this.memoryMappedLoading = memoryMappedLoading;
+      return this;
+    }
+
+    /**
+     * When true, the codecs generated by the serializer annotation processor are used instead of reflection
+     */
+    public Builder setGeneratedCodecs(boolean generatedCodecs) {
+      this.generatedCodecs = generatedCodecs;
+      return this;
+    }
+
+    /**
+     * When true, the classes without generated codecs get a codec built from their fields once, which is faster on repeated (de-)serialization
+     */
+    public Builder setRuntimeCodecs(boolean runtimeCodecs) {
+      this.runtimeCodecs = runtimeCodecs;
+      return this;
+    }
+
     public Builder setCommentValueIndent(int commentValueIndent) {
       this.commentValueIndent = commentValueIndent;
       return this;
@@ -352,6 +700,7 @@ public class SerializerConfig {
       return new SerializerConfig(
           this.registeredReplacers,
           this.registeredSerializers,
+          this.registeredPrimitiveCollections,
           this.lineSeparator,
           this.fieldNameStyle,
           this.nodeNameStyle,
@@ -360,6 +709,9 @@ public class SerializerConfig {
           this.registerPlaceholdersForCollectionEntries,
           this.logMissingFields,
           this.backupOnErrors,
+          this.memoryMappedLoading,
+          this.generatedCodecs,
+          this.runtimeCodecs,
           this.commentValueIndent
       );
     }
@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2023 Elytrium
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package net.elytrium.serializer.codec;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import java.lang.annotation.Annotation;
+import net.elytrium.serializer.annotations.Comment;
+import net.elytrium.serializer.annotations.CommentValue;
+
+/**
+ * Creates the comments in the generated codecs, so the annotations are not parsed at runtime.
+ */
+public final class Comments {
+
+  private Comments() {
+
+  }
+
+  public static Comment comment(Comment.At at, int commentValueIndent, CommentValue... value) {
+    return new CommentImpl(value, at, commentValueIndent);
+  }
+
+  public static CommentValue value(String value, CommentValue.Type type, int commentValueIndent) {
+    return new CommentValueImpl(value, type, commentValueIndent);
+  }
+
+  @SuppressWarnings("ClassExplicitlyAnnotation")
+  private static final class CommentImpl implements Comment {
+
+    private final CommentValue[] value;
+    private final Comment.At at;
+    private final int commentValueIndent;
+
+    @SuppressFBWarnings("EI_EXPOSE_REP2")
+    private CommentImpl(CommentValue[] value, Comment.At at, int commentValueIndent) {
+      this.value = value;
+      this.at = at;
+      this.commentValueIndent = commentValueIndent;
+    }
+
+    @Override
+    @SuppressFBWarnings("EI_EXPOSE_REP")
+    public CommentValue[] value() {
+      return this.value;
+    }
+
+    @Override
+    public Comment.At at() {
+      return this.at;
+    }
+
+    @Override
+    public int commentValueIndent() {
+      return this.commentValueIndent;
+    }
+
+    @Override
+    public Class<? extends Annotation> annotationType() {
+      return Comment.class;
+    }
+  }
+
+  @SuppressWarnings("ClassExplicitlyAnnotation")
+  private static final class CommentValueImpl implements CommentValue {
+
+    private final String value;
+    private final CommentValue.Type type;
+    private final int commentValueIndent;
+
+    private CommentValueImpl(String value, CommentValue.Type type, int commentValueIndent) {
+      this.value = value;
+      this.type = type;
+      this.commentValueIndent = commentValueIndent;
+    }
+
+    @Override
+    public String value() {
+      return this.value;
+    }
+
+    @Override
+    public CommentValue.Type type() {
+      return this.type;
+    }
+
+    @Override
+    public int commentValueIndent() {
+      return this.commentValueIndent;
+    }
+
+    @Override
+    public Class<? extends Annotation> annotationType() {
+      return CommentValue.class;
+    }
+  }
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright (C) 2023 Elytrium
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package net.elytrium.serializer.codec;
+
+import java.lang.reflect.Field;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nullable;
+import net.elytrium.serializer.SerializerConfig;
+import net.elytrium.serializer.annotations.Comment;
+import net.elytrium.serializer.annotations.NewLine;
+import net.elytrium.serializer.annotations.Serializer;
+import net.elytrium.serializer.custom.ClassSerializer;
+import net.elytrium.serializer.descriptor.ClassDescriptor;
+import net.elytrium.serializer.descriptor.FieldDescriptor;
+import net.elytrium.serializer.exceptions.ReflectionException;
+import net.elytrium.serializer.language.reader.AbstractReader;
+import net.elytrium.serializer.language.writer.AbstractWriter;
+
+/**
+ * The codec assembled at runtime from the class descriptor, used for the classes without the generated codec.
+ * The read method and the serializer of every field are resolved once, so the scalar nodes skip the readByType dispatch.
+ */
+public final class RuntimeCodec implements SerializableCodec<Object> {
+
+  private static final int SKIP = 0;
+  private static final int INT = 1;
+  private static final int LONG = 2;
+  private static final int DOUBLE = 3;
+  private static final int FLOAT = 4;
+  private static final int SHORT = 5;
+  private static final int BYTE = 6;
+  private static final int STRING = 7;
+  private static final int BOOLEAN = 8;
+  private static final int ENUM = 9;
+  private static final int VALUE = 10;
+
+  private final ClassDescriptor descriptor;
+  private final Node[] nodes;
+  private final Node[] visibleNodes;
+
+  private RuntimeCodec(SerializerConfig config, ClassDescriptor descriptor) {
+    this.descriptor = descriptor;
+
+    List<FieldDescriptor> fields = descriptor.getFields();
+    this.nodes = new Node[fields.size()];
+    Map<FieldDescriptor, Node> fieldNodes = new HashMap<>();
+    for (int i = 0; i < this.nodes.length; ++i) {
+      FieldDescriptor field = fields.get(i);
+      this.nodes[i] = new Node(config, field);
+      fieldNodes.put(field, this.nodes[i]);
+    }
+
+    List<FieldDescriptor> visibleFields = descriptor.getVisibleFields();
+    this.visibleNodes = new Node[visibleFields.size()];
+    for (int i = 0; i < this.visibleNodes.length; ++i) {
+      this.visibleNodes[i] = fieldNodes.get(visibleFields.get(i));
+    }
+  }
+
+  /**
+   * Creates the codec of the described class.
+   *
+   * @return null if the class should be read by the reflective path, e.g. if it registers placeholders.
+   */
+  @Nullable
+  public static RuntimeCodec of(SerializerConfig config, ClassDescriptor descriptor) {
+    if (descriptor.getFields().isEmpty()) {
+      return null;
+    }
+
+    for (FieldDescriptor field : descriptor.getFields()) {
+      if (field.getPlaceholders() != null) {
+        return null;
+      }
+    }
+
+    return new RuntimeCodec(config, descriptor);
+  }
+
+  @Override
+  public boolean readNode(AbstractReader reader, Object holder, CharSequence nodeName) {
+    int index = this.descriptor.getNodeIndex(nodeName);
+    if (index == -1) {
+      return false;
+    }
+
+    Node node = this.nodes[index];
+    Field field = node.field;
+    try {
+      switch (node.kind) {
+        case RuntimeCodec.SKIP -> reader.skipNode(field);
+        case RuntimeCodec.INT -> field.setInt(holder, reader.readIntValue(field));
+        case RuntimeCodec.LONG -> field.setLong(holder, reader.readLongValue(field));
+        case RuntimeCodec.DOUBLE -> field.setDouble(holder, reader.readDoubleValue(field));
+        case RuntimeCodec.FLOAT -> field.setFloat(holder, reader.readFloatValue(field));
+        case RuntimeCodec.SHORT -> field.setShort(holder, reader.readShortValue(field));
+        case RuntimeCodec.BYTE -> field.setByte(holder, reader.readByteValue(field));
+        case RuntimeCodec.STRING -> field.set(holder, reader.readString(field));
+        case RuntimeCodec.BOOLEAN -> field.set(holder, reader.readBoolean(field));
+        case RuntimeCodec.ENUM -> field.set(holder, reader.readEnum(field, field.getType()));
+        default -> field.set(holder, reader.readNodeValue(field, field.get(holder), node.serializer));
+      }
+    } catch (IllegalAccessException e) {
+      throw new ReflectionException(e);
+    }
+
+    return true;
+  }
+
+  @Override
+  public void write(AbstractWriter writer, @Nullable Field owner, Object value) {
+    Node[] nodes = this.visibleNodes;
+    if (nodes.length == 0) {
+      writer.writeEmptyMap();
+      return;
+    }
+
+    for (int i = 0; i < nodes.length; ++i) {
+      Node node = nodes[i];
+      if (node.newLines != 0) {
+        writer.writeNewLines(node.newLines);
+      }
+
+      if (i == 0) {
+        writer.writeBeginMap(owner);
+      }
+
+      Object nodeValue;
+      try {
+        nodeValue = node.field.get(value);
+      } catch (IllegalAccessException e) {
+        throw new ReflectionException(e);
+      }
+
+      writer.writeMapEntry(node.field, node.nodeName, writer.serializeNode(node.serializer, nodeValue), i + 1 != nodes.length, node.comments);
+    }
+
+    writer.writeEndMap(owner);
+  }
+
+  private static final class Node {
+
+    private final Field field;
+    private final String nodeName;
+    private final int kind;
+    @Nullable
+    private final ClassSerializer<Object, Object> serializer;
+    private final int newLines;
+    private final Comment[] comments;
+
+    private Node(SerializerConfig config, FieldDescriptor descriptor) {
+      this.field = descriptor.getField();
+      this.nodeName = descriptor.getNodeName();
+
+      Serializer serializer = descriptor.getSerializer();
+      try {
+        this.serializer = serializer == null ? null : config.getAndCacheSerializer(serializer);
+      } catch (ReflectiveOperationException e) {
+        throw new ReflectionException(e);
+      }
+
+      this.kind = Node.getKind(config, descriptor, this.serializer);
+      NewLine newLine = descriptor.getNewLine();
+      this.newLines = newLine == null ? 0 : newLine.amount();
+      this.comments = descriptor.getComments();
+    }
+
+    private static int getKind(SerializerConfig config, FieldDescriptor descriptor, @Nullable ClassSerializer<Object, Object> serializer) {
+      if (!descriptor.isReadable()) {
+        return RuntimeCodec.SKIP;
+      }
+
+      Class<?> type = descriptor.getField().getType();
+      if (descriptor.isPrimitiveNumber()) {
+        return type == int.class ? RuntimeCodec.INT
+            : type == long.class ? RuntimeCodec.LONG
+            : type == double.class ? RuntimeCodec.DOUBLE
+            : type == float.class ? RuntimeCodec.FLOAT
+            : type == short.class ? RuntimeCodec.SHORT
+            : RuntimeCodec.BYTE;
+      }
+
+      // The scalars are read directly only if no serializer applies to them, the same check as AbstractReader#fillSerializerStack does.
+      ClassSerializer<?, ?> registeredSerializer = config.getRegisteredSerializer(type);
+      if ((serializer != null && type.isAssignableFrom(serializer.getToClass()))
+          || (registeredSerializer != null && registeredSerializer.getToClass().isAssignableFrom(type))) {
+        return RuntimeCodec.VALUE;
+      }
+
+      return type == String.class ? RuntimeCodec.STRING
+          : type == Boolean.class || type == boolean.class ? RuntimeCodec.BOOLEAN
+          : type.isEnum() ? RuntimeCodec.ENUM
+          : RuntimeCodec.VALUE;
+    }
+  }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright (C) 2023 Elytrium
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package net.elytrium.serializer.codec;
+
+import java.lang.reflect.Field;
+import javax.annotation.Nullable;
+import net.elytrium.serializer.language.reader.AbstractReader;
+import net.elytrium.serializer.language.writer.AbstractWriter;
+
+/**
+ * Reads and writes the fields of the serializable object without reflection.
+ * The implementations are generated by the serializer annotation processor as {@code <binary name>_SerializerCodec}, such as {@code Outer$Inner_SerializerCodec},
+ * or built from the class descriptor by {@link RuntimeCodec}, see {@link net.elytrium.serializer.SerializerConfig#getSerializableCodec(Class)}.
+ *
+ * @param <T> The serializable class.
+ */
+public interface SerializableCodec<T> {
+
+  /**
+   * Reads the node into the holder field.
+   *
+   * @param nodeName The read key, it may be a reused buffer that is only valid until the node value is read.
+   * @return false if the class has no field for this node, the node is not read then.
+   */
+  boolean readNode(AbstractReader reader, T holder, CharSequence nodeName);
+
+  /**
+   * Writes the object fields, the same way as {@link AbstractWriter#writeSerializableObject(Field, Object, Class)} does.
+   */
+  void write(AbstractWriter writer, @Nullable Field owner, T value);
+}
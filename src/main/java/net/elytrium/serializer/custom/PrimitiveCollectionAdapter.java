@@ -0,0 +1,62 @@
+/*
+ * Copyright (C) 2023 Elytrium
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package net.elytrium.serializer.custom;
+
+import java.lang.reflect.Field;
+import java.util.Collection;
+import javax.annotation.Nullable;
+import net.elytrium.serializer.language.reader.AbstractReader;
+
+/**
+ * Reads the collections of primitives, e.g. fastutil IntList, entry by entry without boxing.
+ * Writing goes through the regular {@link Collection} path.
+ *
+ * <pre>{@code
+ * new PrimitiveCollectionAdapter<>(IntList.class) {
+ *
+ *   public IntList newCollection() {
+ *     return new IntArrayList();
+ *   }
+ *
+ *   public void readEntry(AbstractReader reader, Field owner, IntList collection) {
+ *     collection.add(reader.readIntValue(owner));
+ *   }
+ * }
+ * }</pre>
+ *
+ * @param <C> The collection type, subclasses of it are read by the adapter too.
+ */
+public abstract class PrimitiveCollectionAdapter<C extends Collection<?>> {
+
+  private final Class<C> collectionClass;
+
+  protected PrimitiveCollectionAdapter(Class<C> collectionClass) {
+    this.collectionClass = collectionClass;
+  }
+
+  public abstract C newCollection();
+
+  /**
+   * Reads exactly one entry from the reader and adds it to the collection.
+   */
+  public abstract void readEntry(AbstractReader reader, @Nullable Field owner, C collection);
+
+  public Class<C> getCollectionClass() {
+    return this.collectionClass;
+  }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2023 Elytrium
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package net.elytrium.serializer.descriptor;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nullable;
+import net.elytrium.serializer.SerializerConfig;
+
+/**
+ * Immutable reflection data of the serializable class, see {@link SerializerConfig#getClassDescriptor(Class)}.
+ */
+public final class ClassDescriptor {
+
+  private final Class<?> clazz;
+  private final List<FieldDescriptor> fields;
+  private final List<FieldDescriptor> visibleFields;
+  private final NodeNameTable nodes;
+
+  public ClassDescriptor(SerializerConfig config, Class<?> clazz) {
+    this.clazz = clazz;
+
+    Field[] declaredFields = clazz.getDeclaredFields();
+    List<FieldDescriptor> fields = new ArrayList<>(declaredFields.length);
+    List<FieldDescriptor> visibleFields = new ArrayList<>(declaredFields.length);
+    Map<String, Integer> nodes = new HashMap<>();
+    for (Field field : declaredFields) {
+      try {
+        field.setAccessible(true);
+      } catch (Exception e) {
+        continue;
+      }
+
+      FieldDescriptor descriptor = new FieldDescriptor(config, field);
+      int index = fields.size();
+      fields.add(descriptor);
+      if (descriptor.isVisible()) {
+        visibleFields.add(descriptor);
+      }
+
+      nodes.put(descriptor.getNodeName(), index);
+      for (String fallbackNodeName : descriptor.getFallbackNodeNames()) {
+        nodes.put(fallbackNodeName, index);
+      }
+    }
+
+    this.fields = Collections.unmodifiableList(fields);
+    this.visibleFields = Collections.unmodifiableList(visibleFields);
+    this.nodes = new NodeNameTable(nodes);
+  }
+
+  public Class<?> getDescribedClass() {
+    return this.clazz;
+  }
+
+  /**
+   * Returns the accessible declared fields in the declaration order.
+   */
+  public List<FieldDescriptor> getFields() {
+    return this.fields;
+  }
+
+  /**
+   * Returns the fields that should be written.
+   */
+  public List<FieldDescriptor> getVisibleFields() {
+    return this.visibleFields;
+  }
+
+  /**
+   * Finds the field by its node name or by one of its fallback node names.
+   */
+  @Nullable
+  public FieldDescriptor getNode(CharSequence nodeName) {
+    int index = this.nodes.indexOf(nodeName);
+    return index == -1 ? null : this.fields.get(index);
+  }
+
+  /**
+   * Returns the index of the node field in {@link #getFields()}, or -1 if there is no such node.
+   */
+  public int getNodeIndex(CharSequence nodeName) {
+    return this.nodes.indexOf(nodeName);
+  }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright (C) 2023 Elytrium
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package net.elytrium.serializer.descriptor;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import javax.annotation.Nullable;
+import net.elytrium.serializer.SerializerConfig;
+import net.elytrium.serializer.annotations.Comment;
+import net.elytrium.serializer.annotations.FallbackNodeNames;
+import net.elytrium.serializer.annotations.Final;
+import net.elytrium.serializer.annotations.NewLine;
+import net.elytrium.serializer.annotations.OverrideNameStyle;
+import net.elytrium.serializer.annotations.RegisterPlaceholders;
+import net.elytrium.serializer.annotations.Serializer;
+import net.elytrium.serializer.annotations.Transient;
+
+/**
+ * Immutable reflection data of the serializable field, the annotations are resolved from the field first and from its type then.
+ */
+public final class FieldDescriptor {
+
+  private static final String[] NO_FALLBACK_NODE_NAMES = new String[0];
+
+  private final Field field;
+  private final int modifiers;
+  private final String nodeName;
+  private final String[] fallbackNodeNames;
+  private final boolean visible;
+  private final boolean readable;
+  private final boolean primitiveNumber;
+  @Nullable
+  private final Serializer serializer;
+  @Nullable
+  private final NewLine newLine;
+  @Nullable
+  private final RegisterPlaceholders placeholders;
+  private final Comment[] comments;
+
+  FieldDescriptor(SerializerConfig config, Field field) {
+    Class<?> type = field.getType();
+    this.field = field;
+    this.modifiers = field.getModifiers();
+
+    OverrideNameStyle overrideNameStyle = FieldDescriptor.getAnnotation(field, OverrideNameStyle.class);
+    this.nodeName = overrideNameStyle == null
+        ? config.toNodeName(field.getName())
+        : config.toNodeName(field.getName(), overrideNameStyle.field(), overrideNameStyle.node());
+    FallbackNodeNames fallbackNodeNames = field.getAnnotation(FallbackNodeNames.class);
+    this.fallbackNodeNames = fallbackNodeNames == null ? FieldDescriptor.NO_FALLBACK_NODE_NAMES : fallbackNodeNames.value();
+
+    boolean isTransient = Modifier.isTransient(this.modifiers) || FieldDescriptor.getAnnotation(field, Transient.class) != null;
+    this.visible = !Modifier.isStatic(this.modifiers) && !isTransient;
+    this.readable = this.visible && !Modifier.isFinal(this.modifiers) && FieldDescriptor.getAnnotation(field, Final.class) == null;
+
+    this.serializer = FieldDescriptor.getAnnotation(field, Serializer.class);
+    this.newLine = FieldDescriptor.getAnnotation(field, NewLine.class);
+    this.placeholders = FieldDescriptor.getAnnotation(field, RegisterPlaceholders.class);
+    this.primitiveNumber = type.isPrimitive() && type != boolean.class && type != char.class
+        && this.serializer == null && config.getRegisteredSerializer(type) == null;
+
+    Comment[] classComments = type.getAnnotationsByType(Comment.class);
+    Comment[] fieldComments = field.getAnnotationsByType(Comment.class);
+    if (classComments.length == 0 || fieldComments.length == 0) {
+      this.comments = classComments.length == 0 ? fieldComments : classComments;
+    } else {
+      this.comments = new Comment[classComments.length + fieldComments.length];
+      System.arraycopy(classComments, 0, this.comments, 0, classComments.length);
+      System.arraycopy(fieldComments, 0, this.comments, classComments.length, fieldComments.length);
+    }
+  }
+
+  private static <A extends Annotation> A getAnnotation(Field field, Class<A> annotationClass) {
+    A annotation = field.getAnnotation(annotationClass);
+    return annotation == null ? field.getType().getAnnotation(annotationClass) : annotation;
+  }
+
+  public Field getField() {
+    return this.field;
+  }
+
+  public int getModifiers() {
+    return this.modifiers;
+  }
+
+  public String getNodeName() {
+    return this.nodeName;
+  }
+
+  @SuppressFBWarnings("EI_EXPOSE_REP")
+  public String[] getFallbackNodeNames() {
+    return this.fallbackNodeNames;
+  }
+
+  /**
+   * Checks if the field is not static nor transient, so it should be written.
+   */
+  public boolean isVisible() {
+    return this.visible;
+  }
+
+  /**
+   * Checks if the field is visible and not final, so it should be read.
+   */
+  public boolean isReadable() {
+    return this.readable;
+  }
+
+  /**
+   * Checks if the field is a primitive number without serializers, so it can be read without boxing.
+   */
+  public boolean isPrimitiveNumber() {
+    return this.primitiveNumber;
+  }
+
+  @Nullable
+  public Serializer getSerializer() {
+    return this.serializer;
+  }
+
+  @Nullable
+  public NewLine getNewLine() {
+    return this.newLine;
+  }
+
+  @Nullable
+  public RegisterPlaceholders getPlaceholders() {
+    return this.placeholders;
+  }
+
+  @SuppressFBWarnings("EI_EXPOSE_REP")
+  public Comment[] getComments() {
+    return this.comments;
+  }
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright (C) 2023 Elytrium
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package net.elytrium.serializer.descriptor;
+
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+import java.util.function.Supplier;
+
+/**
+ * Creates instances through the no-args constructor, built once per class and shared between the configs.
+ * Public constructors of public classes visible from our class loader are called through a {@link LambdaMetafactory} supplier,
+ * the rest through a {@link MethodHandle} or the reflection.
+ */
+public abstract class Instantiator<T> {
+
+  private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+  private static final ClassValue<Instantiator<?>> INSTANTIATORS = new ClassValue<Instantiator<?>>() {
+
+    @Override
+    protected Instantiator<?> computeValue(Class<?> type) {
+      return Instantiator.create(type);
+    }
+  };
+
+  final Class<T> clazz;
+
+  Instantiator(Class<T> clazz) {
+    this.clazz = clazz;
+  }
+
+  @SuppressWarnings("unchecked")
+  public static <T> Instantiator<T> of(Class<T> clazz) {
+    return (Instantiator<T>) Instantiator.INSTANTIATORS.get(clazz);
+  }
+
+  private static <T> Instantiator<T> create(Class<T> clazz) {
+    Constructor<T> constructor;
+    try {
+      constructor = clazz.getDeclaredConstructor();
+      constructor.setAccessible(true);
+    } catch (NoSuchMethodException | RuntimeException e) {
+      return new MissingInstantiator<>(clazz);
+    }
+
+    if (Modifier.isAbstract(clazz.getModifiers())) {
+      return new ReflectiveInstantiator<>(constructor);
+    }
+
+    MethodHandle handle;
+    try {
+      handle = Instantiator.LOOKUP.unreflectConstructor(constructor).asType(MethodType.methodType(Object.class));
+    } catch (IllegalAccessException e) {
+      return new ReflectiveInstantiator<>(constructor);
+    }
+
+    // The spun supplier links against the class from our class loader on the first call,
+    // so the choice is made here instead of falling back when that call fails.
+    if (Modifier.isPublic(clazz.getModifiers()) && Modifier.isPublic(constructor.getModifiers()) && Instantiator.isVisible(clazz)) {
+      try {
+        return new LambdaInstantiator<>(clazz, Instantiator.LOOKUP.unreflectConstructor(constructor));
+      } catch (Throwable t) {
+        // The supplier can't be spun for this class.
+      }
+    }
+
+    return new MethodHandleInstantiator<>(clazz, handle);
+  }
+
+  private static boolean isVisible(Class<?> clazz) {
+    try {
+      return Class.forName(clazz.getName(), false, Instantiator.class.getClassLoader()) == clazz;
+    } catch (ClassNotFoundException | LinkageError e) {
+      return false;
+    }
+  }
+
+  /**
+   * Checks if the class has the no-args constructor.
+   */
+  public boolean isAvailable() {
+    return true;
+  }
+
+  /**
+   * Creates the instance, exceptions thrown by the constructor are wrapped into {@link InvocationTargetException}.
+   */
+  public abstract T newInstance() throws ReflectiveOperationException;
+
+  public Class<T> getInstantiatedClass() {
+    return this.clazz;
+  }
+
+  private static final class MissingInstantiator<T> extends Instantiator<T> {
+
+    MissingInstantiator(Class<T> clazz) {
+      super(clazz);
+    }
+
+    @Override
+    public boolean isAvailable() {
+      return false;
+    }
+
+    @Override
+    public T newInstance() throws NoSuchMethodException {
+      throw new NoSuchMethodException(this.clazz.getName() + ".<init>()");
+    }
+  }
+
+  private static final class ReflectiveInstantiator<T> extends Instantiator<T> {
+
+    private final Constructor<T> constructor;
+
+    ReflectiveInstantiator(Constructor<T> constructor) {
+      super(constructor.getDeclaringClass());
+      this.constructor = constructor;
+    }
+
+    @Override
+    public T newInstance() throws ReflectiveOperationException {
+      return this.constructor.newInstance();
+    }
+  }
+
+  private static final class MethodHandleInstantiator<T> extends Instantiator<T> {
+
+    private final MethodHandle handle;
+
+    MethodHandleInstantiator(Class<T> clazz, MethodHandle handle) {
+      super(clazz);
+      this.handle = handle;
+    }
+
+    @Override
+    public T newInstance() throws ReflectiveOperationException {
+      try {
+        return this.clazz.cast((Object) this.handle.invokeExact());
+      } catch (Error e) {
+        throw e;
+      } catch (Throwable t) {
+        throw new InvocationTargetException(t);
+      }
+    }
+  }
+
+  private static final class LambdaInstantiator<T> extends Instantiator<T> {
+
+    private final Supplier<?> supplier;
+
+    LambdaInstantiator(Class<T> clazz, MethodHandle implementation) throws Throwable {
+      super(clazz);
+      this.supplier = (Supplier<?>) LambdaMetafactory.metafactory(
+          Instantiator.LOOKUP, "get", MethodType.methodType(Supplier.class), MethodType.methodType(Object.class), implementation, MethodType.methodType(clazz)
+      ).getTarget().invokeExact();
+    }
+
+    @Override
+    public T newInstance() throws ReflectiveOperationException {
+      try {
+        return this.clazz.cast(this.supplier.get());
+      } catch (Error e) {
+        throw e;
+      } catch (Throwable t) {
+        throw new InvocationTargetException(t);
+      }
+    }
+  }
+}
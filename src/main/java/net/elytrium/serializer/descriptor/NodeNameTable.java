@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2023 Elytrium
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package net.elytrium.serializer.descriptor;
+
+import java.util.Map;
+
+/**
+ * Open addressing table of the node names known up front, including the fallback ones.
+ * It is looked up by the characters of the read key, so the key doesn't have to be turned into a String.
+ */
+public final class NodeNameTable {
+
+  private final String[] names;
+  private final int[] indexes;
+  private final int mask;
+
+  /**
+   * @param indexes The node names mapped to the field indexes.
+   */
+  public NodeNameTable(Map<String, Integer> indexes) {
+    int capacity = Integer.highestOneBit(Math.max(indexes.size(), 1) * 2 - 1) << 1;
+    this.names = new String[capacity];
+    this.indexes = new int[capacity];
+    this.mask = capacity - 1;
+    for (Map.Entry<String, Integer> entry : indexes.entrySet()) {
+      String name = entry.getKey();
+      int slot = NodeNameTable.spread(name.hashCode()) & this.mask;
+      while (this.names[slot] != null) {
+        slot = (slot + 1) & this.mask;
+      }
+
+      this.names[slot] = name;
+      this.indexes[slot] = entry.getValue();
+    }
+  }
+
+  /**
+   * Returns the field index of the node name, or -1 if there is no such node.
+   */
+  public int indexOf(CharSequence name) {
+    int length = name.length();
+    int hash = 0;
+    for (int i = 0; i < length; ++i) {
+      hash = 31 * hash + name.charAt(i);
+    }
+
+    for (int slot = NodeNameTable.spread(hash) & this.mask; ; slot = (slot + 1) & this.mask) {
+      String candidate = this.names[slot];
+      if (candidate == null) {
+        return -1;
+      }
+
+      if (NodeNameTable.matches(candidate, name, length)) {
+        return this.indexes[slot];
+      }
+    }
+  }
+
+  private static boolean matches(String candidate, CharSequence name, int length) {
+    if (candidate.length() != length) {
+      return false;
+    }
+
+    for (int i = 0; i < length; ++i) {
+      if (candidate.charAt(i) != name.charAt(i)) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  private static int spread(int hash) {
+    return hash ^ (hash >>> 16);
+  }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2023 Elytrium
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package net.elytrium.serializer.descriptor;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import javax.annotation.Nullable;
+import net.elytrium.serializer.SerializerConfig;
+import net.elytrium.serializer.custom.ClassSerializer;
+
+/**
+ * Registered serializers that deserialize a class, in the order they are pushed to the serializer stack, built once per class.
+ */
+public final class SerializerChain {
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private static final ClassSerializer<?, Object>[] NO_SERIALIZERS = new ClassSerializer[0];
+
+  private final ClassSerializer<?, Object>[] serializers;
+  private final Type type;
+
+  private SerializerChain(ClassSerializer<?, Object>[] serializers, @Nullable Type type) {
+    this.serializers = serializers;
+    this.type = type;
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  public static SerializerChain of(SerializerConfig config, Class<?> clazz) {
+    List<ClassSerializer<?, Object>> serializers = null;
+    Type type = null;
+    while (true) {
+      ClassSerializer<?, Object> classSerializer = config.getRegisteredSerializer(clazz);
+      if (classSerializer == null || !classSerializer.getToClass().isAssignableFrom(clazz)) {
+        break;
+      }
+
+      if (serializers == null) {
+        serializers = new ArrayList<>(2);
+      }
+
+      serializers.add(classSerializer);
+      clazz = classSerializer.getFromClass();
+      type = classSerializer.getFromType();
+
+      if (classSerializer.getToType() == classSerializer.getFromType()) {
+        break;
+      }
+    }
+
+    return new SerializerChain(serializers == null ? SerializerChain.NO_SERIALIZERS : serializers.toArray(new ClassSerializer[0]), type);
+  }
+
+  /**
+   * Pushes the serializers to the serializer stack.
+   *
+   * @return The type the last serializer deserializes from, null if there are no serializers.
+   */
+  @Nullable
+  public Type fill(Deque<ClassSerializer<?, Object>> serializerStack) {
+    Collections.addAll(serializerStack, this.serializers);
+    return this.type;
+  }
+}
@@ -20,6 +20,8 @@ package net.elytrium.serializer.language.object;
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
@@ -31,6 +33,9 @@ import net.elytrium.serializer.annotations.Comment;
 import net.elytrium.serializer.exceptions.SerializableReadException;
 import net.elytrium.serializer.exceptions.SerializableWriteException;
 import net.elytrium.serializer.language.reader.AbstractReader;
+import net.elytrium.serializer.language.reader.source.CharacterSource;
+import net.elytrium.serializer.language.reader.source.MappedFileCharacterSource;
+import net.elytrium.serializer.language.reader.source.Utf8CharacterSource;
 import net.elytrium.serializer.language.writer.AbstractWriter;
 
 public abstract class AbstractSerializable {
@@ -71,13 +76,16 @@ public abstract class AbstractSerializable {
     return this.reload(this.serializablePath);
   }
 
+  /**
+   * Streams the file even if memory mapped loading is enabled, as it is written right after being read.
+   */
   public LoadResult reload(Path path) {
-    LoadResult result = this.load(path);
+    LoadResult result = this.load(path, false);
     switch (result) {
       case SUCCESS -> this.save(path);
       case CONFIG_NOT_EXISTS -> {
         this.save(path);
-        this.load(path); // Load again, because it now exists.
+        this.load(path, false); // Load again, because it now exists.
       }
       case BACKUP_PREFERRED -> {
         if (this.config.isBackupOnErrors()) {
@@ -102,10 +110,22 @@ public abstract class AbstractSerializable {
   }
 
   public LoadResult load(Path path) {
+    return this.load(path, this.config.isMemoryMappedLoading());
+  }
+
+  private LoadResult load(Path path, boolean memoryMapped) {
     Path absolutePath = path.toAbsolutePath();
     if (Files.exists(absolutePath)) {
-      try {
-        return this.load(Files.newBufferedReader(absolutePath)) ? LoadResult.SUCCESS : LoadResult.BACKUP_PREFERRED;
+      if (memoryMapped) {
+        try (MappedFileCharacterSource source = MappedFileCharacterSource.open(absolutePath)) {
+          return this.load(source) ? LoadResult.SUCCESS : LoadResult.BACKUP_PREFERRED;
+        } catch (IOException e) {
+          throw new SerializableReadException(e);
+        }
+      }
+
+      try (InputStream stream = Files.newInputStream(absolutePath)) {
+        return this.load(new Utf8CharacterSource(stream)) ? LoadResult.SUCCESS : LoadResult.BACKUP_PREFERRED;
       } catch (IOException e) {
         throw new SerializableReadException(e);
       }
@@ -115,7 +135,14 @@ public abstract class AbstractSerializable {
   }
 
   public boolean load(BufferedReader reader) {
-    AbstractReader abstractReader = this.getReader(reader);
+    return this.load(this.getReader(reader));
+  }
+
+  public boolean load(CharacterSource source) {
+    return this.load(this.getReader(source));
+  }
+
+  private boolean load(AbstractReader abstractReader) {
     abstractReader.readSerializableObject(this, this.getClass());
     return !abstractReader.isBackupPreferred();
   }
@@ -138,7 +165,9 @@ public abstract class AbstractSerializable {
       }
 
       Files.createDirectories(parent);
-      this.save(Files.newBufferedWriter(absolutePath));
+      try (BufferedWriter writer = Files.newBufferedWriter(absolutePath)) {
+        this.save(writer);
+      }
     } catch (IOException e) {
       throw new SerializableWriteException(e);
     }
@@ -183,5 +212,23 @@ public abstract class AbstractSerializable {
 
   protected abstract AbstractReader getReader(BufferedReader reader);
 
+  /**
+   * Subclasses written before the character sources existed only provide {@link #getReader(BufferedReader)},
+   * so by default the source is adapted to a {@link BufferedReader}. Override to read the source directly.
+   */
+  protected AbstractReader getReader(CharacterSource source) {
+    return this.getReader(new BufferedReader(new Reader() {
+
+      @Override
+      public int read(char[] buffer, int offset, int length) throws IOException {
+        return source.read(buffer, offset, length);
+      }
+
+      @Override
+      public void close() {
+      }
+    }));
+  }
+
   protected abstract AbstractWriter getWriter(BufferedWriter writer);
 }
@@ -23,6 +23,7 @@ import java.nio.file.Path;
 import net.elytrium.serializer.SerializerConfig;
 import net.elytrium.serializer.language.reader.AbstractReader;
 import net.elytrium.serializer.language.reader.JsonReader;
+import net.elytrium.serializer.language.reader.source.CharacterSource;
 import net.elytrium.serializer.language.writer.AbstractWriter;
 import net.elytrium.serializer.language.writer.JsonWriter;
 
@@ -46,6 +47,11 @@ public class JsonSerializable extends AbstractSerializable {
     return new JsonReader(reader, this.getConfig());
   }
 
+  @Override
+  protected AbstractReader getReader(CharacterSource source) {
+    return new JsonReader(source, this.getConfig());
+  }
+
   @Override
   protected AbstractWriter getWriter(BufferedWriter writer) {
     JsonWriter jsonWriter = new JsonWriter(writer, this.getConfig());
@@ -26,6 +26,7 @@ import java.util.Map;
 import net.elytrium.serializer.SerializerConfig;
 import net.elytrium.serializer.language.reader.AbstractReader;
 import net.elytrium.serializer.language.reader.YamlReader;
+import net.elytrium.serializer.language.reader.source.CharacterSource;
 import net.elytrium.serializer.language.writer.AbstractWriter;
 import net.elytrium.serializer.language.writer.YamlWriter;
 
@@ -52,6 +53,11 @@ public class YamlSerializable extends AbstractSerializable {
     return new YamlReader(reader, this.getConfig(), this);
   }
 
+  @Override
+  protected AbstractReader getReader(CharacterSource source) {
+    return new YamlReader(source, this.getConfig(), this);
+  }
+
   @Override
   protected AbstractWriter getWriter(BufferedWriter writer) {
     YamlWriter yamlWriter = new YamlWriter(this.getConfig(), writer, this);
@@ -20,9 +20,7 @@ package net.elytrium.serializer.language.reader;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import java.io.BufferedReader;
 import java.io.IOException;
-import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.ArrayDeque;
@@ -35,41 +33,106 @@ import java.util.List;
 import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.annotation.Nullable;
 import net.elytrium.serializer.SerializerConfig;
 import net.elytrium.serializer.annotations.CollectionType;
 import net.elytrium.serializer.annotations.MapType;
+import net.elytrium.serializer.annotations.RegisterPlaceholders;
 import net.elytrium.serializer.annotations.Serializer;
+import net.elytrium.serializer.codec.SerializableCodec;
 import net.elytrium.serializer.custom.ClassSerializer;
+import net.elytrium.serializer.custom.PrimitiveCollectionAdapter;
+import net.elytrium.serializer.descriptor.ClassDescriptor;
+import net.elytrium.serializer.descriptor.FieldDescriptor;
+import net.elytrium.serializer.descriptor.Instantiator;
 import net.elytrium.serializer.exceptions.ReflectionException;
 import net.elytrium.serializer.exceptions.SerializableReadException;
+import net.elytrium.serializer.language.reader.source.CharacterSource;
+import net.elytrium.serializer.language.reader.source.ReaderCharacterSource;
+import net.elytrium.serializer.placeholders.DefaultPlaceholderReplacer;
+import net.elytrium.serializer.placeholders.PlaceholderReplacer;
+import net.elytrium.serializer.placeholders.Placeholders;
 import net.elytrium.serializer.utils.GenericUtils;
 
+/**
+ * Keeps the parser state in its fields and takes no locks, so a reader should be used by one thread at a time.
+ * See {@link #readSynchronized(Function)} for sharing one reader between threads.
+ */
 public abstract class AbstractReader {
 
   private static final Logger LOGGER = Logger.getLogger(AbstractReader.class.getName());
   protected static final char NEW_LINE = '\n';
+  protected static final int DEFAULT_WINDOW_SIZE = 8192;
+  protected static final Object MALFORMED_NUMBER = new Object();
 
-  private final char[] singleCharBuffer = new char[1];
-  private final Queue<Character> seekBuffer = new ArrayDeque<>();
+  private final SeekBuffer seekBuffer = new SeekBuffer();
+  private final ReentrantLock lock = new ReentrantLock();
+  final NumberParser numberParser = new NumberParser();
   protected final SerializerConfig config;
+  protected final CharacterSource source;
+  /**
+   * @deprecated Characters are read through {@link #source} in blocks, reading from this reader directly skips the buffered ones.
+   *     Null if the reader was constructed from a {@link CharacterSource}.
+   */
+  @Deprecated
   protected final BufferedReader reader;
 
+  private final char[] window;
+  private int windowPosition;
+  private int windowLimit;
+  private boolean endOfSource;
+
+  private char currentChar;
   private boolean reuseBuffer;
-  private boolean seekEnabled;
   private CarriageType carriageType = CarriageType.UNKNOWN;
   private boolean backupPreferred;
 
+  private Token currentToken;
+  private String tokenText;
+  private Object tokenValue;
+
   public AbstractReader(SerializerConfig config, BufferedReader reader) {
-    this.config = config;
-    this.reader = reader;
+    this(config, new ReaderCharacterSource(reader), AbstractReader.DEFAULT_WINDOW_SIZE, reader);
   }
 
   public AbstractReader(BufferedReader reader) {
-    this.config = SerializerConfig.DEFAULT;
+    this(SerializerConfig.DEFAULT, reader);
+  }
+
+  public AbstractReader(SerializerConfig config, CharacterSource source) {
+    this(config, source, AbstractReader.DEFAULT_WINDOW_SIZE);
+  }
+
+  public AbstractReader(SerializerConfig config, CharacterSource source, int windowSize) {
+    this(config, source, windowSize, null);
+  }
+
+  private AbstractReader(SerializerConfig config, CharacterSource source, int windowSize, @Nullable BufferedReader reader) {
+    if (windowSize < 1) {
+      throw new IllegalArgumentException("Window size should be positive: " + windowSize);
+    }
+
+    this.config = config;
+    this.source = source;
     this.reader = reader;
+    this.window = new char[windowSize];
+  }
+
+  /**
+   * Runs the reads holding the reader lock, every thread sharing the reader should read through this method.
+   * The lock is not a monitor, so blocking reads don't pin virtual threads.
+   */
+  public <T> T readSynchronized(Function<? super AbstractReader, T> reads) {
+    this.lock.lock();
+    try {
+      return reads.apply(this);
+    } finally {
+      this.lock.unlock();
+    }
   }
 
   public void readSerializableObject(Object holder, Class<?> clazz) {
@@ -102,74 +165,204 @@ public abstract class AbstractReader {
 
   public abstract boolean readEndSerializableObject(@Nullable Field owner);
 
-  public Object readNode(Object holder, Field node) {
-    synchronized (this) {
-      Deque<ClassSerializer<?, Object>> serializerStack = new ArrayDeque<>(Math.min(16, this.config.getRegisteredSerializers() + 1/*If first iteration and annotation serializer not cached yet.*/));
-      Type type = node.getGenericType();
-      Class<?> clazz = node.getType();
-
-      Serializer serializer = node.getAnnotation(Serializer.class);
-      if (serializer == null) {
-        serializer = node.getType().getAnnotation(Serializer.class);
+  protected ClassDescriptor prepareNodeFields(Object holder, Class<?> clazz) throws ReflectiveOperationException {
+    ClassDescriptor descriptor = this.config.getClassDescriptor(clazz);
+    // Register initial values.
+    for (FieldDescriptor node : descriptor.getFields()) {
+      if (!node.getField().getType().isPrimitive()) {
+        Object value = node.getField().get(holder);
+        this.removePlaceholders(value);
+        this.updatePlaceholders(node, value); // Updating placeholders here in case if on reload field was written and not read yet.
       }
+    }
 
-      if (serializer != null) {
-        try {
-          ClassSerializer<?, Object> classSerializer = this.config.getAndCacheSerializer(serializer);
-          if (clazz.isAssignableFrom(classSerializer.getToClass())) {
-            serializerStack.add(classSerializer);
-            type = classSerializer.getFromType();
-            clazz = classSerializer.getFromClass();
-          }
-        } catch (ReflectiveOperationException e) {
-          throw new ReflectionException(e);
+    return descriptor;
+  }
+
+  /**
+   * Reads the node into the field found by its name.
+   *
+   * @param nodeName The read key, it may be a reused buffer that is only valid until the node value is read.
+   */
+  protected void readNodeByName(@Nullable Field owner, Object holder, ClassDescriptor descriptor, CharSequence nodeName) {
+    FieldDescriptor node = descriptor.getNode(nodeName);
+    if (node == null) {
+      this.skipMissingNode(owner, nodeName);
+    } else if (!node.isReadable()) {
+      this.skipNode(node.getField());
+    } else if (!this.readPrimitiveNode(holder, node)) {
+      try {
+        this.removePlaceholders(node.getField().get(holder));
+        this.updatePlaceholders(node, this.readNode(holder, node));
+      } catch (ReflectiveOperationException e) {
+        this.skipGuessingType(owner);
+        this.setBackupPreferred();
+        if (this.config.isLogMissingFields()) {
+          AbstractReader.LOGGER.log(Level.WARNING, "Skipping node " + node.getNodeName() + " due to exception caught", e);
         }
       }
+    }
+  }
 
-      Type typeSerialized = this.fillSerializerStack(serializerStack, clazz);
-      if (!serializerStack.isEmpty() && typeSerialized != null) {
-        type = typeSerialized;
+  /**
+   * Reads the node by the codec, the same way as {@link #readNodeByName(Field, Object, ClassDescriptor, CharSequence)} does.
+   */
+  protected void readNodeByName(@Nullable Field owner, Object holder, SerializableCodec<Object> codec, CharSequence nodeName) {
+    if (!codec.readNode(this, holder, nodeName)) {
+      this.skipMissingNode(owner, nodeName);
+    }
+  }
+
+  private void skipMissingNode(@Nullable Field owner, CharSequence nodeName) {
+    String missingNodeName = nodeName.toString(); // Only the unknown keys are materialized, before the skipped value reuses the buffer.
+    this.skipGuessingType(owner);
+    this.setBackupPreferred();
+    if (this.config.isLogMissingFields()) {
+      AbstractReader.LOGGER.log(Level.WARNING, "Skipping node " + missingNodeName + " due to missing field");
+    }
+  }
+
+  private void removePlaceholders(Object value) throws ReflectiveOperationException {
+    Placeholders.removePlaceholders(value);
+    if (value instanceof Collection<?> collection) {
+      for (Object entry : collection) {
+        Placeholders.removePlaceholders(entry);
       }
+    }
+  }
 
-      try {
-        Object value = this.readAndDeserializeByType(node, node.get(holder), type, serializerStack);
-        if (type == Integer.class || type == int.class) {
-          node.setInt(holder, ((Long) value).intValue());
-        } else if (type == Short.class || type == short.class) {
-          node.setShort(holder, ((Long) value).shortValue());
-        } else if (type == Byte.class || type == byte.class) {
-          node.setByte(holder, ((Long) value).byteValue());
-        } else if (type == Float.class || type == float.class) {
-          node.setFloat(holder, ((Double) value).floatValue());
-        } else {
-          node.set(holder, value);
+  private void updatePlaceholders(FieldDescriptor node, Object value) throws ReflectiveOperationException {
+    RegisterPlaceholders placeholders = node.getPlaceholders();
+    if (placeholders != null) {
+      Field field = node.getField();
+      PlaceholderReplacer<?, ?> replacer = null;
+      if (placeholders.replacer() == DefaultPlaceholderReplacer.class) {
+        replacer = value instanceof Collection<?>
+            ? this.config.getRegisteredReplacer((Class<?>) this.config.getParameterType(Collection.class, field.getGenericType(), 0))
+            : this.config.getRegisteredReplacer(field.getType());
+      }
+
+      if (replacer == null) {
+        replacer = this.config.getAndCacheReplacer(placeholders.replacer());
+      }
+
+      if (this.config.isRegisterPlaceholdersForCollectionEntries() && value instanceof Collection<?> collection) {
+        for (Object entry : collection) {
+          Placeholders.addPlaceholders(entry, replacer, placeholders.wrapWithBraces(), placeholders.value());
         }
+      }
 
-        return value;
-      } catch (IllegalAccessException e) {
+      Placeholders.addPlaceholders(value, replacer, placeholders.wrapWithBraces(), placeholders.value());
+    }
+  }
+
+  public Object readNode(Object holder, Field node) {
+    Serializer serializer = node.getAnnotation(Serializer.class);
+    if (serializer == null) {
+      serializer = node.getType().getAnnotation(Serializer.class);
+    }
+
+    return this.readNode(holder, node, serializer);
+  }
+
+  protected Object readNode(Object holder, FieldDescriptor node) {
+    return this.readNode(holder, node.getField(), node.getSerializer());
+  }
+
+  private Object readNode(Object holder, Field node, @Nullable Serializer serializer) {
+    ClassSerializer<?, Object> classSerializer = null;
+    if (serializer != null) {
+      try {
+        classSerializer = this.config.getAndCacheSerializer(serializer);
+      } catch (ReflectiveOperationException e) {
         throw new ReflectionException(e);
       }
     }
+
+    try {
+      Object value = this.readNodeValue(node, node.get(holder), classSerializer);
+      node.set(holder, value);
+      return value;
+    } catch (IllegalAccessException e) {
+      throw new ReflectionException(e);
+    }
   }
 
-  protected Type fillSerializerStack(Deque<ClassSerializer<?, Object>> serializerStack, Class<?> clazz) {
-    Type type = null;
-    while (true) {
-      ClassSerializer<?, Object> classSerializer = this.config.getRegisteredSerializer(clazz);
-      if (classSerializer == null || !classSerializer.getToClass().isAssignableFrom(clazz)) {
-        break;
+  /**
+   * Reads the node value the same way as {@link #readNode(Object, Field)} does, but returns it instead of setting the field.
+   * Numbers are narrowed to the serialized type, so the value can be unboxed into the field.
+   *
+   * @param value The current field value.
+   * @param serializer The serializer from the {@link Serializer} annotation.
+   */
+  public Object readNodeValue(Field node, @Nullable Object value, @Nullable ClassSerializer<?, Object> serializer) {
+    Deque<ClassSerializer<?, Object>> serializerStack = new ArrayDeque<>(Math.min(16, this.config.getRegisteredSerializers() + 1/*If first iteration and annotation serializer not cached yet.*/));
+    Type type = node.getGenericType();
+    Class<?> clazz = node.getType();
+    if (serializer != null && clazz.isAssignableFrom(serializer.getToClass())) {
+      serializerStack.add(serializer);
+      type = serializer.getFromType();
+      clazz = serializer.getFromClass();
+    }
+
+    Type typeSerialized = this.fillSerializerStack(serializerStack, clazz);
+    if (!serializerStack.isEmpty() && typeSerialized != null) {
+      type = typeSerialized;
+    }
+
+    Object result = this.readAndDeserializeByType(node, value, type, serializerStack);
+    if (result instanceof Long longValue) {
+      if (type == Integer.class || type == int.class) {
+        return longValue.intValue();
+      } else if (type == Short.class || type == short.class) {
+        return longValue.shortValue();
+      } else if (type == Byte.class || type == byte.class) {
+        return longValue.byteValue();
       }
+    } else if (result instanceof Double doubleValue && (type == Float.class || type == float.class)) {
+      return doubleValue.floatValue();
+    }
 
-      serializerStack.add(classSerializer);
-      clazz = classSerializer.getFromClass();
-      type = classSerializer.getFromType();
+    return result;
+  }
 
-      if (classSerializer.getToType() == classSerializer.getFromType()) {
-        break;
+  /**
+   * Reads the primitive number node straight into the field, without boxing.
+   *
+   * @return false if the node should be read by {@link #readNode(Object, FieldDescriptor)} instead.
+   */
+  protected boolean readPrimitiveNode(Object holder, FieldDescriptor descriptor) {
+    if (!descriptor.isPrimitiveNumber()) {
+      return false;
+    }
+
+    Field node = descriptor.getField();
+    Class<?> clazz = node.getType();
+    try {
+      if (clazz == int.class) {
+        node.setInt(holder, this.readIntValue(node));
+      } else if (clazz == long.class) {
+        node.setLong(holder, this.readLongValue(node));
+      } else if (clazz == double.class) {
+        node.setDouble(holder, this.readDoubleValue(node));
+      } else if (clazz == float.class) {
+        node.setFloat(holder, this.readFloatValue(node));
+      } else if (clazz == short.class) {
+        node.setShort(holder, this.readShortValue(node));
+      } else if (clazz == byte.class) {
+        node.setByte(holder, this.readByteValue(node));
+      } else {
+        return false;
       }
+    } catch (IllegalAccessException e) {
+      throw new ReflectionException(e);
     }
 
-    return type;
+    return true;
+  }
+
+  protected Type fillSerializerStack(Deque<ClassSerializer<?, Object>> serializerStack, Class<?> clazz) {
+    return this.config.getSerializerChain(clazz).fill(serializerStack);
   }
 
   protected Object readAndDeserializeByType(@Nullable Field owner, Object holder, Type type, Deque<ClassSerializer<?, Object>> serializerStack) {
@@ -184,6 +377,70 @@ public abstract class AbstractReader {
     return value;
   }
 
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  protected void readMapEntry(@Nullable Field owner, Type keyType, Type valueType, String nodeName, Map<Object, Object> result) {
+    Object key;
+    if (keyType == Object.class) {
+      Number number = this.guessNumber(nodeName);
+      key = number == null ? nodeName : number;
+    } else if (keyType instanceof Class<?> keyClazz) {
+      if (String.class.isAssignableFrom(keyClazz)) {
+        key = nodeName;
+      } else if (Character.class.isAssignableFrom(keyClazz) || char.class.isAssignableFrom(keyClazz)) {
+        if (nodeName.isEmpty()) {
+          throw new IllegalStateException("Character can't be null!");
+        } else {
+          key = nodeName.charAt(0);
+        }
+      } else if (keyClazz.isEnum()) {
+        key = Enum.valueOf((Class<? extends Enum>) keyClazz, nodeName);
+      } else if (Boolean.class.isAssignableFrom(keyClazz) || boolean.class.isAssignableFrom(keyClazz)) {
+        key = Boolean.valueOf(nodeName);
+      } else if (Number.class.isAssignableFrom(keyClazz) || keyClazz.isPrimitive()) {
+        if (Double.class.isAssignableFrom(keyClazz) || double.class.isAssignableFrom(keyClazz)) {
+          key = Double.valueOf(nodeName);
+        } else if (Float.class.isAssignableFrom(keyClazz) || float.class.isAssignableFrom(keyClazz)) {
+          key = Float.valueOf(nodeName);
+        } else if (Long.class.isAssignableFrom(keyClazz) || long.class.isAssignableFrom(keyClazz)) {
+          key = Long.valueOf(nodeName);
+        } else if (Integer.class.isAssignableFrom(keyClazz) || int.class.isAssignableFrom(keyClazz)) {
+          key = Integer.valueOf(nodeName);
+        } else if (Short.class.isAssignableFrom(keyClazz) || short.class.isAssignableFrom(keyClazz)) {
+          key = Short.valueOf(nodeName);
+        } else if (Byte.class.isAssignableFrom(keyClazz) || byte.class.isAssignableFrom(keyClazz)) {
+          key = Byte.valueOf(nodeName);
+        } else {
+          throw new IllegalStateException("Number " + keyClazz + " for map key are not supported yet!");
+        }
+      } else {
+        Deque<ClassSerializer<?, Object>> serializerStack = new ArrayDeque<>(Math.min(16, this.config.getRegisteredSerializers() + 1/*See AbstractReader#readNode*/));
+        Type type = this.fillSerializerStack(serializerStack, keyClazz);
+        if (serializerStack.isEmpty()) {
+          throw new IllegalStateException("Class " + keyClazz + " for map key are not supported yet!");
+        }
+
+        if (!(type instanceof Class<?>) || Map.class.isAssignableFrom((Class<?>) type) || Collection.class.isAssignableFrom((Class<?>) type)) {
+          throw new IllegalStateException("Class " + type + " for map key is not supported!");
+        }
+
+        key = this.readAndDeserializeByType(owner, null, type, serializerStack);
+      }
+    } else {
+      throw new IllegalStateException("Type " + keyType + " for map key are not supported yet!");
+    }
+
+    result.put(key, this.readByType0(owner, valueType));
+  }
+
+  protected Object readByType0(@Nullable Field owner, Type type) {
+    Object result = this.readByType(owner, type);
+    return type == Integer.class || type == int.class ? Integer.valueOf(((Long) result).intValue())
+        : type == Short.class || type == short.class ? Short.valueOf(((Long) result).shortValue())
+        : type == Byte.class || type == byte.class ? Byte.valueOf(((Long) result).byteValue())
+        : type == Float.class || type == float.class ? Float.valueOf(((Double) result).floatValue())
+        : result; // Long || Double
+  }
+
   public Object readByField(Field field) {
     return this.readByType(field, field.getGenericType());
   }
@@ -202,82 +459,78 @@ public abstract class AbstractReader {
   }
 
   public Object readByType(@Nullable Field owner, @Nullable Object holder, Type type) {
-    synchronized (this) {
-      if (type == Object.class) {
-        return this.readGuessingType(owner);
-      } else if (type instanceof ParameterizedType parameterizedType) {
-        Class<?> clazz = (Class<?>) parameterizedType.getRawType();
-        return Map.class.isAssignableFrom(clazz) ? this.readMapByType(owner, parameterizedType)
-            : Collection.class.isAssignableFrom(clazz) ? this.readCollectionByType(owner, parameterizedType, clazz)
-            : this.readGuessingType(owner);
-      } else if (type instanceof Class<?> clazz) {
-        if (Map.class.isAssignableFrom(clazz)) {
-          return this.readMapByType(owner, type);
-        } else if (Collection.class.isAssignableFrom(clazz)) {
-          return this.readCollectionByType(owner, type, clazz);
-        } else if (String.class.isAssignableFrom(clazz)) {
-          return this.readString(owner);
-        } else if (Character.class.isAssignableFrom(clazz) || char.class.isAssignableFrom(clazz)) {
-          return this.readCharacter(owner);
-        } else if (clazz.isEnum()) {
-          return this.readEnum(owner, clazz);
-        } else if (Boolean.class.isAssignableFrom(clazz) || boolean.class.isAssignableFrom(clazz)) {
-          return this.readBoolean(owner);
-        } else if (Number.class.isAssignableFrom(clazz) || clazz.isPrimitive()) {
-          return this.readNumber(owner, clazz);
-        } else {
-          try {
-            Object result;
-            if (clazz.isInstance(holder)) {
-              result = holder;
-            } else {
-              Constructor<?> constructor = clazz.getDeclaredConstructor();
-              constructor.setAccessible(true);
-              result = constructor.newInstance();
-            }
-
-            this.readSerializableObject(owner, result, clazz);
-            return result;
-          } catch (ReflectiveOperationException e) {
-            Object value = this.readGuessingType(owner);
-            ClassSerializer<?, Object> classSerializer = this.config.getRegisteredSerializer(clazz);
-            if (classSerializer != null) {
-              value = classSerializer.deserialize(value);
-            }
+    if (type == Object.class) {
+      return this.readGuessingType(owner);
+    } else if (type instanceof ParameterizedType parameterizedType) {
+      Class<?> clazz = (Class<?>) parameterizedType.getRawType();
+      return Map.class.isAssignableFrom(clazz) ? this.readMapByType(owner, parameterizedType)
+          : Collection.class.isAssignableFrom(clazz) ? this.readCollectionByType(owner, parameterizedType, clazz)
+          : this.readGuessingType(owner);
+    } else if (type instanceof Class<?> clazz) {
+      if (Map.class.isAssignableFrom(clazz)) {
+        return this.readMapByType(owner, type);
+      } else if (Collection.class.isAssignableFrom(clazz)) {
+        PrimitiveCollectionAdapter<Collection<?>> adapter = this.config.getRegisteredPrimitiveCollection(clazz);
+        return adapter == null ? this.readCollectionByType(owner, type, clazz) : this.readPrimitiveCollection(owner, adapter);
+      } else if (clazz.isArray()) {
+        return this.readArray(owner, clazz.getComponentType());
+      } else if (String.class.isAssignableFrom(clazz)) {
+        return this.readString(owner);
+      } else if (Character.class.isAssignableFrom(clazz) || char.class.isAssignableFrom(clazz)) {
+        return this.readCharacter(owner);
+      } else if (clazz.isEnum()) {
+        return this.readEnum(owner, clazz);
+      } else if (Boolean.class.isAssignableFrom(clazz) || boolean.class.isAssignableFrom(clazz)) {
+        return this.readBoolean(owner);
+      } else if (Number.class.isAssignableFrom(clazz) || clazz.isPrimitive()) {
+        return this.readNumber(owner, clazz);
+      } else {
+        try {
+          Object result;
+          if (clazz.isInstance(holder)) {
+            result = holder;
+          } else {
+            result = Instantiator.of(clazz).newInstance();
+          }
 
-            return value;
+          this.readSerializableObject(owner, result, clazz);
+          return result;
+        } catch (ReflectiveOperationException e) {
+          Object value = this.readGuessingType(owner);
+          ClassSerializer<?, Object> classSerializer = this.config.getRegisteredSerializer(clazz);
+          if (classSerializer != null) {
+            value = classSerializer.deserialize(value);
           }
+
+          return value;
         }
-      } else {
-        throw new IllegalArgumentException("Invalid type was provided: " + type);
       }
+    } else {
+      throw new IllegalArgumentException("Invalid type was provided: " + type);
     }
   }
 
   @SuppressWarnings("unchecked")
   @SuppressFBWarnings("NP_LOAD_OF_KNOWN_NULL_VALUE")
   private Map<Object, Object> readMapByType(Field owner, Type type) {
-    Type mapKeyType = GenericUtils.getParameterType(Map.class, type, 0);
-    Type mapValueType = GenericUtils.getParameterType(Map.class, type, 1);
+    Type mapKeyType = this.config.getParameterType(Map.class, type, 0);
+    Type mapValueType = this.config.getParameterType(Map.class, type, 1);
     if (owner != null) {
       MapType mapType = owner.getAnnotation(MapType.class);
       if (mapType != null) {
         try {
-          var constructor = mapType.value().getDeclaredConstructor();
-          constructor.setAccessible(true);
-          return this.readMap(owner, (Map<Object, Object>) constructor.newInstance(), mapKeyType, mapValueType);
-        } catch (InstantiationException | IllegalAccessException | InvocationTargetException | NoSuchMethodException e) {
+          return this.readMap(owner, (Map<Object, Object>) Instantiator.of(mapType.value()).newInstance(), mapKeyType, mapValueType);
+        } catch (ReflectiveOperationException e) {
           throw new SerializableReadException(e);
         }
       } else {
-        try {
-          Constructor<?> constructor = GenericUtils.unwrapClassParameterizedType(type).getDeclaredConstructor();
-          constructor.setAccessible(true);
-          return this.readMap(owner, (Map<Object, Object>) constructor.newInstance(), mapKeyType, mapValueType);
-        } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
-          throw new SerializableReadException(e);
-        } catch (NoSuchMethodException e) {
-          // Ignoring NoSuchMethod.
+        Instantiator<?> instantiator = Instantiator.of(GenericUtils.unwrapClassParameterizedType(type));
+        if (instantiator.isAvailable()) { // Falling back to the default map otherwise.
+          try {
+            return this.readMap(owner, (Map<Object, Object>) instantiator.newInstance(), mapKeyType, mapValueType);
+          } catch (ReflectiveOperationException e) {
+            throw new SerializableReadException(e);
+          }
         }
       }
     }
@@ -288,26 +541,23 @@ public abstract class AbstractReader {
   @SuppressWarnings("unchecked")
   @SuppressFBWarnings("NP_LOAD_OF_KNOWN_NULL_VALUE")
   private Collection<Object> readCollectionByType(Field owner, Type type, Class<?> clazz) {
-    Type collectionEntryType = GenericUtils.getParameterType(Collection.class, type, 0);
+    Type collectionEntryType = this.config.getParameterType(Collection.class, type, 0);
     if (owner != null) {
       CollectionType collectionType = owner.getAnnotation(CollectionType.class);
       if (collectionType != null) {
         try {
-          var constructor = collectionType.value().getDeclaredConstructor();
-          constructor.setAccessible(true);
-          return this.readCollection(owner, (Collection<Object>) constructor.newInstance(), collectionEntryType);
-        } catch (InstantiationException | IllegalAccessException | InvocationTargetException | NoSuchMethodException e) {
+          return this.readCollection(owner, (Collection<Object>) Instantiator.of(collectionType.value()).newInstance(), collectionEntryType);
+        } catch (ReflectiveOperationException e) {
           throw new SerializableReadException(e);
         }
       } else {
-        try {
-          Constructor<?> constructor = GenericUtils.unwrapClassParameterizedType(type).getDeclaredConstructor();
-          constructor.setAccessible(true);
-          return this.readCollection(owner, (Collection<Object>) constructor.newInstance(), collectionEntryType);
-        } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
-          throw new SerializableReadException(e);
-        } catch (NoSuchMethodException e) {
-          // Ignoring NoSuchMethod.
+        Instantiator<?> instantiator = Instantiator.of(GenericUtils.unwrapClassParameterizedType(type));
+        if (instantiator.isAvailable()) { // Falling back to the default collection otherwise.
+          try {
+            return this.readCollection(owner, (Collection<Object>) instantiator.newInstance(), collectionEntryType);
+          } catch (ReflectiveOperationException e) {
+            throw new SerializableReadException(e);
+          }
         }
       }
     }
@@ -317,6 +567,26 @@ public abstract class AbstractReader {
         : this.readList(owner, collectionEntryType);
   }
 
+  /**
+   * Reads the array, entries of primitive arrays are read without boxing.
+   */
+  public Object readArray(@Nullable Field owner, Class<?> componentType) {
+    ArrayBuilder builder = new ArrayBuilder(this, componentType);
+    return this.readCollectionEntries(owner, builder) ? builder.build() : null;
+  }
+
+  public <C extends Collection<?>> C readPrimitiveCollection(@Nullable Field owner, PrimitiveCollectionAdapter<C> adapter) {
+    C result = adapter.newCollection();
+    return this.readCollectionEntries(owner, entryOwner -> adapter.readEntry(this, entryOwner, result)) ? result : null;
+  }
+
+  /**
+   * Reads the collection, calling the entry reader for each entry. The entry reader should read exactly one value.
+   *
+   * @return false if the collection is null.
+   */
+  public abstract boolean readCollectionEntries(@Nullable Field owner, CollectionEntryReader entryReader);
+
   public Object readGuessingType() {
     return this.readGuessingType(null);
   }
@@ -391,6 +661,79 @@ public abstract class AbstractReader {
 
   public abstract <C extends Collection<Object>> C readCollection(@Nullable Field owner, C result, Type type);
 
+  /**
+   * Advances to the next token of the document without materializing the containers.
+   * The token reading should not be mixed with the other read methods.
+   */
+  public abstract Token nextToken();
+
+  @Nullable
+  public Token currentToken() {
+    return this.currentToken;
+  }
+
+  /**
+   * Returns the node name of the {@link Token#KEY} token or the text of the {@link Token#SCALAR} token, null for the null scalar.
+   */
+  @Nullable
+  public String getText() {
+    return this.tokenText;
+  }
+
+  /**
+   * Returns the value of the current token guessed the same way as {@link #readGuessingType()} does.
+   */
+  @Nullable
+  public Object getValue() {
+    return this.tokenValue;
+  }
+
+  public long getLong() throws NumberFormatException {
+    return this.tokenValue instanceof Long value ? value : Long.parseLong(this.tokenText);
+  }
+
+  public double getDouble() throws NumberFormatException {
+    if (this.tokenValue instanceof Number value) {
+      return value.doubleValue();
+    } else if (this.tokenText == null) {
+      throw new NumberFormatException("Got null scalar");
+    } else {
+      return Double.parseDouble(this.tokenText);
+    }
+  }
+
+  public boolean getBoolean() {
+    return this.tokenValue instanceof Boolean value ? value : Boolean.parseBoolean(this.tokenText);
+  }
+
+  /**
+   * Skips the tokens up to the end of the current container, does nothing if the current token doesn't start a container.
+   */
+  public void skipChildren() {
+    if (this.currentToken != Token.START_MAP && this.currentToken != Token.START_LIST) {
+      return;
+    }
+
+    int depth = 1;
+    while (depth != 0) {
+      switch (this.nextToken()) {
+        case START_MAP, START_LIST -> ++depth;
+        case END_MAP, END_LIST -> --depth;
+        case END_DOCUMENT -> throw new IllegalStateException("Got end of file when skipping children");
+        default -> {
+
+        }
+      }
+    }
+  }
+
+  protected Token setToken(Token token, @Nullable String text, @Nullable Object value) {
+    this.currentToken = token;
+    this.tokenText = text;
+    this.tokenValue = value;
+    return token;
+  }
+
   public String readString() {
     return this.readString(null);
   }
@@ -420,23 +763,64 @@ public abstract class AbstractReader {
   }
 
   public Number readNumber(@Nullable Field owner, Class<?> clazz) {
-    synchronized (this) {
-      boolean decimal = Float.class.isAssignableFrom(clazz) || float.class.isAssignableFrom(clazz)
-          || Double.class.isAssignableFrom(clazz) || double.class.isAssignableFrom(clazz);
-      try {
-        // Read about casts: https://pastebin.com/wgR7zB7p
-        return decimal ? (Number) this.readDouble(owner) : (Number) this.readLong(owner);
-      } catch (NumberFormatException e) {
-        if (this.config.isSafeMode()) {
-          AbstractReader.LOGGER.log(Level.WARNING, "Can't read number due to exception caught, overwriting the value by 0", e);
-          return decimal ? (Number) 0.0 : (Number) 0L;
-        } else {
-          throw new RuntimeException(e);
-        }
+    boolean decimal = Float.class.isAssignableFrom(clazz) || float.class.isAssignableFrom(clazz)
+        || Double.class.isAssignableFrom(clazz) || double.class.isAssignableFrom(clazz);
+    if (this.config.isSafeMode()) {
+      Object number = this.readNumberSafely(owner, decimal);
+      if (number == AbstractReader.MALFORMED_NUMBER) {
+        AbstractReader.LOGGER.log(Level.WARNING, "Can't read malformed number, overwriting the value by 0");
+        return decimal ? (Number) 0.0 : (Number) 0L;
       }
+
+      return (Number) number;
+    }
+
+    try {
+      // Read about casts: https://pastebin.com/wgR7zB7p
+      return decimal ? (Number) this.readDouble(owner) : (Number) this.readLong(owner);
+    } catch (NumberFormatException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  /**
+   * Reads a number without throwing on malformed input, {@link #MALFORMED_NUMBER} is returned instead.
+   * Readers should override it if they can tell a malformed number apart without an exception.
+   */
+  @Nullable
+  protected Object readNumberSafely(@Nullable Field owner, boolean decimal) {
+    try {
+      return decimal ? (Object) this.readDouble(owner) : (Object) this.readLong(owner);
+    } catch (NumberFormatException e) {
+      return AbstractReader.MALFORMED_NUMBER;
     }
   }
 
+  /**
+   * Classifies the scalar in a single pass.
+   *
+   * @return Long or Double if the scalar is a number, null otherwise.
+   */
+  @Nullable
+  Number guessNumber(CharSequence scalar) {
+    NumberParser number = this.numberParser.parse(scalar);
+    if (number.isLong()) {
+      return number.longValue();
+    } else if (number.isNumber() || number.isSpecial()) {
+      return number.doubleValue();
+    }
+
+    return null;
+  }
+
+  static Object toNumberOrMalformed(NumberParser number, boolean decimal) {
+    if (decimal) {
+      return number.isNumber() || number.isSpecial() ? (Object) number.doubleValue() : AbstractReader.MALFORMED_NUMBER;
+    }
+
+    return number.isLong() ? (Object) number.longValue() : AbstractReader.MALFORMED_NUMBER;
+  }
+
   public Double readDouble() {
     return this.readDouble(null);
   }
@@ -449,6 +833,104 @@ public abstract class AbstractReader {
 
   public abstract Long readLong(@Nullable Field owner);
 
+  public long readLongValue() {
+    return this.readLongValue(null);
+  }
+
+  /**
+   * Reads a number as a primitive, in safe mode a malformed number is replaced by 0.
+   */
+  public long readLongValue(@Nullable Field owner) {
+    return AbstractReader.requirePrimitive(this.readNumber(owner, long.class)).longValue();
+  }
+
+  public double readDoubleValue() {
+    return this.readDoubleValue(null);
+  }
+
+  /**
+   * Reads a number as a primitive, in safe mode a malformed number is replaced by 0.
+   */
+  public double readDoubleValue(@Nullable Field owner) {
+    return AbstractReader.requirePrimitive(this.readNumber(owner, double.class)).doubleValue();
+  }
+
+  /**
+   * Reads a number as a primitive, in safe mode a malformed or out of range number is replaced by 0.
+   * NaN and the infinities are kept as they are.
+   */
+  public float readFloatValue(@Nullable Field owner) {
+    double value = this.readDoubleValue(owner);
+    float result = (float) value;
+    return Float.isInfinite(result) && !Double.isInfinite(value) ? this.rejectOutOfRange(value).floatValue() : result;
+  }
+
+  /**
+   * Reads a number as a primitive, in safe mode a malformed or out of range number is replaced by 0.
+   */
+  public int readIntValue(@Nullable Field owner) {
+    return (int) this.checkRange(this.readLongValue(owner), Integer.MIN_VALUE, Integer.MAX_VALUE);
+  }
+
+  public short readShortValue(@Nullable Field owner) {
+    return (short) this.checkRange(this.readLongValue(owner), Short.MIN_VALUE, Short.MAX_VALUE);
+  }
+
+  public byte readByteValue(@Nullable Field owner) {
+    return (byte) this.checkRange(this.readLongValue(owner), Byte.MIN_VALUE, Byte.MAX_VALUE);
+  }
+
+  private long checkRange(long value, long min, long max) {
+    return value < min || value > max ? this.rejectOutOfRange(value).longValue() : value;
+  }
+
+  private Number rejectOutOfRange(Number value) {
+    if (this.config.isSafeMode()) {
+      AbstractReader.LOGGER.log(Level.WARNING, "Number " + value + " is out of range, overwriting the value by 0");
+      return 0L;
+    } else {
+      throw new RuntimeException(new NumberFormatException("Value out of range. Value:\"" + value + "\""));
+    }
+  }
+
+  long toLongValue(@Nullable NumberParser number) {
+    if (AbstractReader.requirePrimitive(number).isLong()) {
+      return number.longValue();
+    } else if (this.config.isSafeMode()) {
+      AbstractReader.LOGGER.log(Level.WARNING, "Can't read malformed number, overwriting the value by 0");
+      return 0L;
+    }
+
+    try {
+      return Long.parseLong(number.toString());
+    } catch (NumberFormatException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  double toDoubleValue(@Nullable NumberParser number) {
+    if (AbstractReader.requirePrimitive(number).isNumber() || number.isSpecial()) {
+      return number.doubleValue();
+    } else if (this.config.isSafeMode()) {
+      AbstractReader.LOGGER.log(Level.WARNING, "Can't read malformed number, overwriting the value by 0");
+      return 0.0;
+    }
+
+    try {
+      return Double.parseDouble(number.toString());
+    } catch (NumberFormatException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  private static <T> T requirePrimitive(@Nullable T value) {
+    if (value == null) {
+      throw new IllegalStateException("Primitive number can't be null!");
+    }
+
+    return value;
+  }
+
   public void skipNode(Field node) {
     this.skipNode(node, node.getType());
   }
@@ -503,6 +985,52 @@ public abstract class AbstractReader {
 
   public abstract boolean skipComments(@Nullable Field owner, char marker, boolean reuse);
 
+  protected int readEscapedCharacter() {
+    char marker;
+    return switch (marker = this.readRaw()) {
+      case '0' -> '\0';
+      case 'a' -> '\u0007';
+      case 'b' -> '\b';
+      case 't' -> '\t';
+      case 'n' -> '\n';
+      case 'v' -> '\u000B';
+      case 'f' -> '\f';
+      case 'r' -> '\r';
+      case 'e' -> '\u001B';
+      case ' ' -> ' ';
+      case '"' -> '\"';
+      case '/' -> '/';
+      case '\\' -> '\\';
+      case 'N' -> '\u0085';
+      case '_' -> '\u00A0';
+      case 'L' -> '\u2028';
+      case 'P' -> '\u2029';
+      case 'x' -> this.readHexChar(2);
+      case 'u' -> this.readHexChar(4);
+      case 'U' -> this.readHexChar(8);
+      default -> throw new IllegalStateException("Invalid escape character: \\" + marker);
+    };
+  }
+
+  private int readHexChar(int size) {
+    int result = 0;
+    for (int i = 0; i < size; ++i) {
+      char character = this.readRaw();
+      if (character == '\0' || character == AbstractReader.NEW_LINE) {
+        throw new IllegalStateException("Got new line while reading hex char");
+      }
+
+      int digit = Character.digit(character, 16);
+      if (digit == -1) {
+        throw new IllegalStateException("Invalid hex character: " + character);
+      }
+
+      result = (result << 4) | digit;
+    }
+
+    return result;
+  }
+
   public char readRawIgnoreEmptyAndNewLines() {
     return this.readRawIgnoreEmptyAndCharacter(AbstractReader.NEW_LINE);
   }
@@ -528,25 +1056,14 @@ public abstract class AbstractReader {
   public char readRaw() {
     if (this.reuseBuffer) {
       this.reuseBuffer = false;
+    } else if (this.seekBuffer.hasPending()) {
+      this.currentChar = this.seekBuffer.next();
     } else {
-      if (this.seekEnabled || this.seekBuffer.isEmpty()) {
-        try {
-          if (this.reader.read(this.singleCharBuffer, 0, 1) < 1) {
-            this.singleCharBuffer[0] = 0;
-          }
-        } catch (IOException e) {
-          throw new SerializableReadException(e);
-        }
-
-        if (this.seekEnabled) {
-          this.seekBuffer.add(this.singleCharBuffer[0]);
-        }
-      } else {
-        this.singleCharBuffer[0] = this.seekBuffer.poll();
-      }
+      this.currentChar = this.windowPosition == this.windowLimit && !this.fillWindow() ? 0 : this.window[this.windowPosition++];
+      this.seekBuffer.record(this.currentChar);
     }
 
-    return switch (this.singleCharBuffer[0]) {
+    return switch (this.currentChar) {
       case '\r' -> switch (this.carriageType) {
         case LF -> throw new IllegalStateException("Caught a Carriage Return in LF mode");
         case CRLF -> this.readRaw();
@@ -557,7 +1074,7 @@ public abstract class AbstractReader {
             this.carriageType = CarriageType.CRLF;
           } else {
             this.carriageType = CarriageType.CR;
-            this.seekBuffer.add(nextChar);
+            this.seekBuffer.unread(nextChar);
           }
 
           yield AbstractReader.NEW_LINE;
@@ -571,12 +1088,38 @@ public abstract class AbstractReader {
           yield AbstractReader.NEW_LINE;
         }
       };
-      default -> this.singleCharBuffer[0];
+      default -> this.currentChar;
     };
   }
 
+  private boolean fillWindow() {
+    if (this.endOfSource) {
+      return false;
+    }
+
+    try {
+      int read;
+      do {
+        read = this.source.read(this.window, 0, this.window.length);
+      } while (read == 0);
+
+      if (read < 0) {
+        this.endOfSource = true;
+        this.windowPosition = 0;
+        this.windowLimit = 0;
+        return false;
+      }
+
+      this.windowPosition = 0;
+      this.windowLimit = read;
+      return true;
+    } catch (IOException e) {
+      throw new SerializableReadException(e);
+    }
+  }
+
   public void replaceSingleCharBuffer(char replacement) {
-    this.singleCharBuffer[0] = replacement;
+    this.currentChar = replacement;
   }
 
   public void setReuseBuffer() {
@@ -587,22 +1130,36 @@ public abstract class AbstractReader {
     return this.reuseBuffer;
   }
 
+  /**
+   * Marks the current position, characters read after it will be replayed after {@link AbstractReader#unsetSeek()}.
+   */
   public void setSeek() {
-    this.seekEnabled = true;
+    this.seekBuffer.mark();
   }
 
+  /**
+   * Same as {@link AbstractReader#setSeek()}, but the already read marker will be replayed first.
+   */
   public void setSeekFromMarker(char marker) {
-    this.seekBuffer.add(marker);
-    this.seekEnabled = true;
+    this.seekBuffer.markFrom(marker);
   }
 
+  /**
+   * Returns to the marked position.
+   */
   public void unsetSeek() {
-    this.seekEnabled = false;
+    this.seekBuffer.reset();
   }
 
+  /**
+   * Drops the mark, characters read after it won't be replayed.
+   */
   public void clearSeek() {
-    this.seekBuffer.clear();
-    this.seekEnabled = false;
+    this.seekBuffer.clearMark();
+  }
+
+  public boolean isSeek() {
+    return this.seekBuffer.isMarked();
   }
 
   public boolean isBackupPreferred() {
@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2023 Elytrium
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package net.elytrium.serializer.language.reader;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import javax.annotation.Nullable;
+
+/**
+ * Collects the entries straight into the array of the component type, so primitive arrays are read without boxing.
+ */
+final class ArrayBuilder implements CollectionEntryReader {
+
+  private static final int INITIAL_CAPACITY = 16;
+
+  private final AbstractReader reader;
+  private final Class<?> componentType;
+  private Object array;
+  private int capacity = ArrayBuilder.INITIAL_CAPACITY;
+  private int size;
+
+  ArrayBuilder(AbstractReader reader, Class<?> componentType) {
+    this.reader = reader;
+    this.componentType = componentType;
+    this.array = Array.newInstance(componentType, ArrayBuilder.INITIAL_CAPACITY);
+  }
+
+  @Override
+  public void readEntry(@Nullable Field owner) {
+    if (this.size == this.capacity) {
+      this.array = this.copyOf(this.capacity <<= 1);
+    }
+
+    Class<?> componentType = this.componentType;
+    Object array = this.array;
+    int index = this.size++;
+    if (componentType == int.class) {
+      ((int[]) array)[index] = this.reader.readIntValue(owner);
+    } else if (componentType == long.class) {
+      ((long[]) array)[index] = this.reader.readLongValue(owner);
+    } else if (componentType == double.class) {
+      ((double[]) array)[index] = this.reader.readDoubleValue(owner);
+    } else if (componentType == float.class) {
+      ((float[]) array)[index] = this.reader.readFloatValue(owner);
+    } else if (componentType == short.class) {
+      ((short[]) array)[index] = this.reader.readShortValue(owner);
+    } else if (componentType == byte.class) {
+      ((byte[]) array)[index] = this.reader.readByteValue(owner);
+    } else if (componentType == boolean.class) {
+      // Read as readBoolean does, which can't tell a null apart from false.
+      String value = this.reader.readString(owner);
+      if (value == null) {
+        throw new IllegalStateException("Boolean can't be null!");
+      }
+
+      ((boolean[]) array)[index] = Boolean.parseBoolean(value);
+    } else if (componentType == char.class) {
+      Character value = this.reader.readCharacter(owner);
+      if (value == null) {
+        throw new IllegalStateException("Character can't be null!");
+      }
+
+      ((char[]) array)[index] = value;
+    } else {
+      ((Object[]) array)[index] = this.reader.readByType0(owner, componentType);
+    }
+  }
+
+  Object build() {
+    return this.size == this.capacity ? this.array : this.copyOf(this.size);
+  }
+
+  private Object copyOf(int length) {
+    Object result = Array.newInstance(this.componentType, length);
+    System.arraycopy(this.array, 0, result, 0, this.size);
+    return result;
+  }
+}
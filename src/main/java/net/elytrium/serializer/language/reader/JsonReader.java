@@ -15,46 +15,556 @@
  * along with this program.  If not, see <http://www.gnu.org/licenses/>.
  */
 
+
 package net.elytrium.serializer.language.reader;
 
+import edu.umd.cs.findbugs.annotations.Nullable;
 import java.io.BufferedReader;
 import java.lang.reflect.Field;
-import javax.annotation.Nullable;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import net.elytrium.serializer.SerializerConfig;
+import net.elytrium.serializer.codec.SerializableCodec;
+import net.elytrium.serializer.descriptor.ClassDescriptor;
+import net.elytrium.serializer.language.reader.source.CharacterSource;
+
+/**
+ * RFC 8259 reader. Besides the strict grammar, it accepts comments, trailing commas,
+ * single-quoted strings, bare keys and the YAML escape sequences emitted by older writers.
+ */
+public class JsonReader extends AbstractReader {
+
+  private final StringBuilder scalarBuffer = new StringBuilder(32);
 
-public class JsonReader extends YamlReader {
+  private boolean[] tokenContainers = new boolean[8];
+  private int tokenDepth;
+  private boolean tokenEntryRead;
+  private boolean tokenAwaitingValue;
+  private boolean documentStarted;
 
   public JsonReader(BufferedReader reader, SerializerConfig config) {
-    super(reader, config);
+    super(config, reader);
   }
 
   public JsonReader(BufferedReader reader) {
     super(reader);
   }
 
+  public JsonReader(CharacterSource source, SerializerConfig config) {
+    super(config, source);
+  }
+
+  @Override
+  public void readSerializableObject(@Nullable Field owner, Object holder, Class<?> clazz) {
+    char marker = this.readSignificant();
+    if (marker == '\0' || this.isNullFromMarker(marker)) {
+      return;
+    }
+
+    this.setReuseBuffer();
+    this.readBeginSerializableObject(owner);
+    try {
+      SerializableCodec<Object> codec = this.config.getSerializableCodec(clazz);
+      ClassDescriptor descriptor = codec == null ? this.prepareNodeFields(holder, clazz) : null;
+      while (!this.readEndSerializableObject(owner)) {
+        if (descriptor == null) {
+          this.readNodeByName(owner, holder, codec, this.readKeySequence());
+        } else {
+          this.readNodeByName(owner, holder, descriptor, this.readKeySequence());
+        }
+
+        this.readSerializableObjectEntryJoin(owner);
+      }
+    } catch (ReflectiveOperationException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  @Override
+  public String readNodeName(@Nullable Field owner) {
+    char marker = this.readSignificant();
+    if (marker == '\0') {
+      return null;
+    }
+
+    this.setReuseBuffer();
+    return this.readKey();
+  }
+
+  @Override
+  public void readBeginSerializableObject(@Nullable Field owner) {
+    char marker = this.readSignificant();
+    if (marker != '{') {
+      throw new IllegalStateException("Got unknown marker when reading object: " + marker);
+    }
+  }
+
+  @Override
+  public void readSerializableObjectEntryJoin(@Nullable Field owner) {
+    this.readEntryJoin('}');
+  }
+
+  @Override
+  public boolean readEndSerializableObject(@Nullable Field owner) {
+    return this.readEnd('}');
+  }
+
+  @Override
+  public Object readGuessingType(@Nullable Field owner) {
+    char marker = this.readSignificant();
+    return switch (marker) {
+      case '{' -> this.readMapFromBracket(owner, new LinkedHashMap<>(), Object.class, Object.class);
+      case '[' -> this.readCollectionFromBracket(owner, new ArrayList<>(), Object.class);
+      case '"', '\'' -> {
+        this.readQuotedFromMarker(marker);
+        yield this.scalarBuffer.toString();
+      }
+      default -> {
+        this.readBareFromMarker(marker);
+        yield this.guessBareScalar();
+      }
+    };
+  }
+
+  @Override
+  public Token nextToken() {
+    if (this.tokenDepth == 0) {
+      if (this.documentStarted) {
+        return this.setToken(Token.END_DOCUMENT, null, null);
+      }
+
+      this.documentStarted = true;
+      char marker = this.readSignificant();
+      return marker == '\0' ? this.setToken(Token.END_DOCUMENT, null, null) : this.readValueToken(marker);
+    }
+
+    if (this.tokenAwaitingValue) {
+      this.tokenAwaitingValue = false;
+      return this.readValueToken(this.readSignificant());
+    }
+
+    boolean map = this.tokenContainers[this.tokenDepth - 1];
+    char end = map ? '}' : ']';
+    if (this.tokenEntryRead) {
+      this.readEntryJoin(end);
+    }
+
+    this.tokenEntryRead = true;
+    if (this.readEnd(end)) {
+      --this.tokenDepth;
+      return this.setToken(map ? Token.END_MAP : Token.END_LIST, null, null);
+    }
+
+    if (map) {
+      this.tokenAwaitingValue = true;
+      String nodeName = this.readKey();
+      return this.setToken(Token.KEY, nodeName, nodeName);
+    }
+
+    return this.readValueToken(this.readSignificant());
+  }
+
+  private Token readValueToken(char marker) {
+    switch (marker) {
+      case '{', '[' -> {
+        if (this.tokenDepth == this.tokenContainers.length) {
+          this.tokenContainers = Arrays.copyOf(this.tokenContainers, this.tokenDepth << 1);
+        }
+
+        boolean map = marker == '{';
+        this.tokenContainers[this.tokenDepth++] = map;
+        this.tokenEntryRead = false;
+        return this.setToken(map ? Token.START_MAP : Token.START_LIST, null, null);
+      }
+      case '"', '\'' -> {
+        this.readQuotedFromMarker(marker);
+        String value = this.scalarBuffer.toString();
+        return this.setToken(Token.SCALAR, value, value);
+      }
+      default -> {
+        this.readBareFromMarker(marker);
+        Object value = this.guessBareScalar();
+        return this.setToken(Token.SCALAR, value == null ? null : this.scalarBuffer.toString(), value);
+      }
+    }
+  }
+
+  @Override
+  public <C extends Map<Object, Object>> C readMap(@Nullable Field owner, C result, Type keyType, Type valueType) {
+    char marker = this.readSignificant();
+    if (marker == '{') {
+      return this.readMapFromBracket(owner, result, keyType, valueType);
+    } else if (this.isNullFromMarker(marker)) {
+      return null;
+    } else {
+      throw new IllegalStateException("Got unknown marker when reading map: " + marker);
+    }
+  }
+
+  private <C extends Map<Object, Object>> C readMapFromBracket(@Nullable Field owner, C result, Type keyType, Type valueType) {
+    while (!this.readEnd('}')) {
+      this.readMapEntry(owner, keyType, valueType, this.readKey(), result);
+      this.readEntryJoin('}');
+    }
+
+    return result;
+  }
+
+  @Override
+  public <C extends Collection<Object>> C readCollection(@Nullable Field owner, C result, Type type) {
+    char marker = this.readSignificant();
+    if (marker == '[') {
+      return this.readCollectionFromBracket(owner, result, type);
+    } else if (this.isNullFromMarker(marker)) {
+      return null;
+    } else {
+      throw new IllegalStateException("Got unknown marker when reading list: " + marker);
+    }
+  }
+
+  @Override
+  public boolean readCollectionEntries(@Nullable Field owner, CollectionEntryReader entryReader) {
+    char marker = this.readSignificant();
+    if (marker == '[') {
+      while (!this.readEnd(']')) {
+        entryReader.readEntry(owner);
+        this.readEntryJoin(']');
+      }
+
+      return true;
+    } else if (this.isNullFromMarker(marker)) {
+      return false;
+    } else {
+      throw new IllegalStateException("Got unknown marker when reading list: " + marker);
+    }
+  }
+
+  private <C extends Collection<Object>> C readCollectionFromBracket(@Nullable Field owner, C result, Type type) {
+    while (!this.readEnd(']')) {
+      result.add(this.readByType0(owner, type));
+      this.readEntryJoin(']');
+    }
+
+    return result;
+  }
+
+  @Override
+  public String readString(@Nullable Field owner) {
+    return this.readScalar() ? this.scalarBuffer.toString() : null;
+  }
+
+  @Override
+  public Character readCharacter(@Nullable Field owner) {
+    return !this.readScalar() || this.scalarBuffer.length() == 0 ? null : this.scalarBuffer.charAt(0);
+  }
+
+  @Override
+  public Boolean readBoolean(@Nullable Field owner) {
+    return Boolean.valueOf(this.readString(owner));
+  }
+
+  @Override
+  public Double readDouble(@Nullable Field owner) throws NumberFormatException {
+    NumberParser number = this.readNumber();
+    if (number == null) {
+      return null;
+    }
+
+    return number.isNumber() ? number.doubleValue() : Double.valueOf(number.toString());
+  }
+
+  @Override
+  public Long readLong(@Nullable Field owner) throws NumberFormatException {
+    NumberParser number = this.readNumber();
+    if (number == null) {
+      return null;
+    }
+
+    if (!number.isLong()) {
+      throw new NumberFormatException("For input string: \"" + number + "\"");
+    }
+
+    return number.longValue();
+  }
+
+  @Override
+  public long readLongValue(@Nullable Field owner) {
+    return this.toLongValue(this.readNumber());
+  }
+
+  @Override
+  public double readDoubleValue(@Nullable Field owner) {
+    return this.toDoubleValue(this.readNumber());
+  }
+
+  @Override
+  protected Object readNumberSafely(@Nullable Field owner, boolean decimal) {
+    NumberParser number = this.readNumber();
+    return number == null ? null : AbstractReader.toNumberOrMalformed(number, decimal);
+  }
+
+  @Override
+  public void skipMap(@Nullable Field owner) {
+    this.skipGuessingType(owner);
+  }
+
+  @Override
+  public void skipCollection(@Nullable Field owner) {
+    this.skipGuessingType(owner);
+  }
+
+  @Override
+  public void skipString(@Nullable Field owner) {
+    this.skipGuessingType(owner);
+  }
+
+  @Override
+  public void skipGuessingType(@Nullable Field owner) {
+    this.skipValueFromMarker(this.readSignificant());
+  }
+
+  private void skipValueFromMarker(char marker) {
+    switch (marker) {
+      case '{' -> {
+        while (!this.readEnd('}')) {
+          this.readKey();
+          this.skipValueFromMarker(this.readSignificant());
+          this.readEntryJoin('}');
+        }
+      }
+      case '[' -> {
+        while (!this.readEnd(']')) {
+          this.skipValueFromMarker(this.readSignificant());
+          this.readEntryJoin(']');
+        }
+      }
+      case '"', '\'' -> this.readQuotedFromMarker(marker);
+      default -> this.readBareFromMarker(marker);
+    }
+  }
+
   @Override
   public boolean skipComments(@Nullable Field owner, char marker, boolean reuse) {
-    synchronized (this) {
+    if (marker == '/') {
+      char nextMarker = this.readRaw();
+      if (nextMarker == '/') {
+        do {
+          nextMarker = this.readRaw();
+        } while (nextMarker != AbstractReader.NEW_LINE && nextMarker != '\0');
+
+        return true;
+      } else if (nextMarker == '*') {
+        char previousMarker;
+        do {
+          previousMarker = nextMarker;
+          nextMarker = this.readRaw();
+          if (nextMarker == '\0') {
+            throw new IllegalStateException("Got end of file when reading comment");
+          }
+        } while (previousMarker != '*' || nextMarker != '/');
+
+        return true;
+      } else {
+        this.setReuseBuffer();
+      }
+    }
+
+    if (reuse) {
+      this.setReuseBuffer();
+    }
+
+    return false;
+  }
+
+  /**
+   * Reads the next char that is neither whitespace nor a part of a comment.
+   */
+  private char readSignificant() {
+    while (true) {
+      char marker = this.readRaw();
       if (marker == '/') {
-        if (this.readRaw() == '/') {
-          while (true) {
-            if (this.isEndMarker(this.readRaw())) {
-              break;
-            }
+        if (!this.skipComments(null, marker, false)) {
+          throw new IllegalStateException("Got unknown marker: /");
+        }
+      } else if (marker != ' ' && marker != '\t' && marker != AbstractReader.NEW_LINE && marker != '\uFEFF') {
+        return marker;
+      }
+    }
+  }
+
+  private boolean readEnd(char end) {
+    char marker = this.readSignificant();
+    if (marker == end) {
+      return true;
+    }
+
+    this.setReuseBuffer();
+    return false;
+  }
+
+  private void readEntryJoin(char end) {
+    char marker = this.readSignificant();
+    if (marker == end) {
+      this.setReuseBuffer();
+    } else if (marker != ',') {
+      throw new IllegalStateException("Got unknown marker when reading entry join: " + marker + ", expected , or " + end);
+    }
+  }
+
+  private String readKey() {
+    return this.readKeySequence().toString();
+  }
+
+  /**
+   * Reads the key into the scalar buffer, which stays valid until the next scalar is read.
+   */
+  private CharSequence readKeySequence() {
+    char marker = this.readSignificant();
+    if (marker == '"' || marker == '\'') {
+      this.readQuotedFromMarker(marker);
+    } else if (marker == '\0') {
+      throw new IllegalStateException("Got end of file when reading node name");
+    } else {
+      this.readBareFromMarker(marker);
+    }
+
+    marker = this.readSignificant();
+    if (marker != ':') {
+      throw new IllegalStateException("Got unknown marker when reading node name " + this.scalarBuffer + ": " + marker);
+    }
+
+    return this.scalarBuffer;
+  }
+
+  /**
+   * Reads a string or a bare scalar into the scalar buffer.
+   *
+   * @return false if the scalar is the null literal.
+   */
+  private boolean readScalar() {
+    return this.readScalarFromMarker(this.readSignificant());
+  }
+
+  private boolean readScalarFromMarker(char marker) {
+    if (marker == '"' || marker == '\'') {
+      this.readQuotedFromMarker(marker);
+      return true;
+    } else if (marker == '{' || marker == '[') {
+      throw new IllegalStateException("Got unknown marker when reading scalar: " + marker);
+    } else {
+      this.readBareFromMarker(marker);
+      return !this.isNullScalar();
+    }
+  }
+
+  /**
+   * Reads a number straight into the number parser, quoted numbers are read through the scalar buffer.
+   *
+   * @return null if the scalar is the null literal.
+   */
+  @Nullable
+  private NumberParser readNumber() {
+    char marker = this.readSignificant();
+    NumberParser number = this.numberParser;
+    if (NumberParser.isNumberStart(marker)) {
+      number.reset();
+      while (!JsonReader.isBareEnd(marker)) {
+        number.append(marker);
+        marker = this.readRaw();
+      }
+
+      this.setReuseBuffer();
+      return number;
+    }
+
+    return this.readScalarFromMarker(marker) ? number.parse(this.scalarBuffer) : null;
+  }
+
+  private void readQuotedFromMarker(char quote) {
+    StringBuilder result = this.scalarBuffer;
+    result.setLength(0);
+    while (true) {
+      char marker = this.readRaw();
+      if (marker == quote) {
+        if (quote == '"' || this.readRaw() != '\'') {
+          if (quote == '\'') {
+            this.setReuseBuffer();
           }
 
-          return true;
+          return;
+        }
+
+        result.append('\'');
+      } else if (marker == '\\' && quote == '"') {
+        // Inlined Character.toChars()
+        int character = this.readEscapedCharacter();
+        if (Character.isBmpCodePoint(character)) {
+          result.append((char) character);
+        } else if (Character.isValidCodePoint(character)) {
+          result.append(Character.highSurrogate(character));
+          result.append(Character.lowSurrogate(character));
         } else {
-          this.setReuseBuffer();
+          throw new IllegalArgumentException(String.format("Not a valid Unicode code point: 0x%X", character));
         }
+      } else if (marker == '\0') {
+        throw new IllegalStateException("Got end of file when reading string");
+      } else {
+        result.append(marker);
       }
+    }
+  }
 
-      // See YamlReader#skipComments(char, boolean).
-      if (reuse) {
-        this.setReuseBuffer();
-      }
+  private void readBareFromMarker(char marker) {
+    StringBuilder result = this.scalarBuffer;
+    result.setLength(0);
+    while (!JsonReader.isBareEnd(marker)) {
+      result.append(marker);
+      marker = this.readRaw();
+    }
+
+    this.setReuseBuffer();
+    if (result.length() == 0) {
+      throw new IllegalStateException("Got unknown marker when reading value: " + marker);
+    }
+  }
 
+  private boolean isNullFromMarker(char marker) {
+    if (marker != 'n') {
       return false;
     }
+
+    this.readBareFromMarker(marker);
+    if (this.isNullScalar()) {
+      return true;
+    }
+
+    throw new IllegalStateException("Got unknown value: " + this.scalarBuffer);
+  }
+
+  private boolean isNullScalar() {
+    StringBuilder scalar = this.scalarBuffer;
+    return scalar.length() == 4 && scalar.charAt(0) == 'n' && scalar.charAt(1) == 'u' && scalar.charAt(2) == 'l' && scalar.charAt(3) == 'l';
+  }
+
+  private Object guessBareScalar() {
+    StringBuilder scalar = this.scalarBuffer;
+    if (this.isNullScalar()) {
+      return null;
+    }
+
+    // Booleans stay strings, the same way YamlReader guesses them.
+    Number number = this.guessNumber(scalar);
+    return number == null ? scalar.toString() : number;
+  }
+
+  private static boolean isBareEnd(char marker) {
+    return switch (marker) {
+      case ',', ':', '}', ']', '/', ' ', '\t', AbstractReader.NEW_LINE, '\0' -> true;
+      default -> false;
+    };
   }
 }
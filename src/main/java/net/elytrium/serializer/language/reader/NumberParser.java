@@ -0,0 +1,299 @@
+/*
+ * Copyright (C) 2023 Elytrium
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package net.elytrium.serializer.language.reader;
+
+import java.util.Arrays;
+
+/**
+ * Parses numbers char by char into primitives, the consumed chars are kept only for the slow path and error messages.
+ * Accepts {@code [+-]?(digits(.digits?)?|.digits)([eE][+-]?digits)?}, NaN and Infinity,
+ * everything else is left to {@link Long#parseLong} and {@link Double#parseDouble}.
+ */
+final class NumberParser {
+
+  private static final int START = 0;
+  private static final int SIGN = 1;
+  private static final int INTEGER = 2;
+  private static final int POINT = 3;
+  private static final int FRACTION = 4;
+  private static final int EXPONENT_MARKER = 5;
+  private static final int EXPONENT_SIGN = 6;
+  private static final int EXPONENT = 7;
+  private static final int LEADING_POINT = 8;
+  private static final int INVALID = 9;
+
+  // 10^18 < 2^63, so 18 decimal digits always fit into the mantissa.
+  private static final int MAX_MANTISSA_DIGITS = 18;
+  private static final long MAX_EXACT_MANTISSA = 1L << 53;
+  private static final int MAX_EXACT_POWER = 22;
+  private static final double[] POWERS_OF_TEN = {
+      1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+      1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+  };
+  private static final long[] LONG_POWERS_OF_TEN = {
+      1L, 10L, 100L, 1000L, 10000L, 100000L, 1000000L, 10000000L, 100000000L, 1000000000L,
+      10000000000L, 100000000000L, 1000000000000L, 10000000000000L, 100000000000000L, 1000000000000000L
+  };
+
+  private char[] text = new char[32];
+  private int length;
+  private int whitespaceStart;
+
+  private int state;
+  private boolean negative;
+  // Accumulated negatively, as Long#parseLong does, so Long.MIN_VALUE fits too.
+  private long integerValue;
+  private boolean integerOverflow;
+  private long mantissa;
+  private int mantissaDigits;
+  private boolean mantissaTruncated;
+  private int decimalExponent;
+  private int exponent;
+  private boolean exponentNegative;
+
+  void reset() {
+    this.length = 0;
+    this.whitespaceStart = -1;
+    this.state = NumberParser.START;
+    this.negative = false;
+    this.integerValue = 0;
+    this.integerOverflow = false;
+    this.mantissa = 0;
+    this.mantissaDigits = 0;
+    this.mantissaTruncated = false;
+    this.decimalExponent = 0;
+    this.exponent = 0;
+    this.exponentNegative = false;
+  }
+
+  static boolean isNumberStart(char character) {
+    return (character >= '0' && character <= '9') || character == '-' || character == '+' || character == '.';
+  }
+
+  NumberParser parse(CharSequence scalar) {
+    this.reset();
+    for (int i = 0, length = scalar.length(); i < length; ++i) {
+      this.append(scalar.charAt(i));
+    }
+
+    return this;
+  }
+
+  void append(char character) {
+    if (this.whitespaceStart != -1) {
+      this.whitespaceStart = -1;
+      this.state = NumberParser.INVALID;
+    }
+
+    this.push(character);
+    this.state = this.accept(character);
+  }
+
+  /**
+   * Appends whitespace that is dropped if nothing else follows it, as trailing spaces of plain scalars are.
+   */
+  void appendWhitespace(char character) {
+    if (this.whitespaceStart == -1) {
+      this.whitespaceStart = this.length;
+    }
+
+    this.push(character);
+  }
+
+  boolean isEmpty() {
+    return this.trimmedLength() == 0;
+  }
+
+  /**
+   * Checks if the appended chars form a number that fits into long.
+   */
+  boolean isLong() {
+    return this.state == NumberParser.INTEGER && !this.integerOverflow;
+  }
+
+  /**
+   * Checks if the appended chars form a number, either integral or decimal.
+   */
+  boolean isNumber() {
+    return this.state == NumberParser.INTEGER || this.state == NumberParser.POINT || this.state == NumberParser.FRACTION || this.state == NumberParser.EXPONENT;
+  }
+
+  /**
+   * Checks if the appended chars are NaN or the signed Infinity.
+   */
+  boolean isSpecial() {
+    int length = this.trimmedLength();
+    char[] text = this.text;
+    int offset = length != 0 && (text[0] == '-' || text[0] == '+') ? 1 : 0;
+    return (offset == 0 && NumberParser.regionEquals(text, 0, length, "NaN")) || NumberParser.regionEquals(text, offset, length, "Infinity");
+  }
+
+  long longValue() {
+    return this.negative ? this.integerValue : -this.integerValue;
+  }
+
+  /**
+   * Returns the correctly rounded value of the number, {@link #isNumber()} or {@link #isSpecial()} should be checked first.
+   */
+  double doubleValue() {
+    if (!this.isNumber()) {
+      char first = this.text[0];
+      return first == 'N' ? Double.NaN : first == '-' ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+    }
+
+    if (this.mantissa == 0) {
+      return this.negative ? -0.0 : 0.0;
+    }
+
+    int exponent = this.decimalExponent + (this.exponentNegative ? -this.exponent : this.exponent);
+    if (!this.mantissaTruncated && this.mantissa <= NumberParser.MAX_EXACT_MANTISSA) {
+      // Both of the operands are exact, so the single multiplication or division is correctly rounded.
+      double value = this.mantissa;
+      if (exponent >= 0 && exponent <= NumberParser.MAX_EXACT_POWER) {
+        value *= NumberParser.POWERS_OF_TEN[exponent];
+        return this.negative ? -value : value;
+      } else if (exponent < 0 && exponent >= -NumberParser.MAX_EXACT_POWER) {
+        value /= NumberParser.POWERS_OF_TEN[-exponent];
+        return this.negative ? -value : value;
+      } else if (exponent > NumberParser.MAX_EXACT_POWER && exponent - NumberParser.MAX_EXACT_POWER < NumberParser.LONG_POWERS_OF_TEN.length) {
+        // Move the excess of the exponent into the mantissa if it stays exact.
+        long power = NumberParser.LONG_POWERS_OF_TEN[exponent - NumberParser.MAX_EXACT_POWER];
+        if (this.mantissa <= NumberParser.MAX_EXACT_MANTISSA / power) {
+          value = (double) (this.mantissa * power) * NumberParser.POWERS_OF_TEN[NumberParser.MAX_EXACT_POWER];
+          return this.negative ? -value : value;
+        }
+      }
+    }
+
+    return Double.parseDouble(this.toString());
+  }
+
+  @Override
+  public String toString() {
+    return new String(this.text, 0, this.trimmedLength());
+  }
+
+  private int trimmedLength() {
+    return this.whitespaceStart == -1 ? this.length : this.whitespaceStart;
+  }
+
+  private static boolean regionEquals(char[] text, int offset, int length, String expected) {
+    if (length - offset != expected.length()) {
+      return false;
+    }
+
+    for (int i = 0; i < expected.length(); ++i) {
+      if (text[offset + i] != expected.charAt(i)) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  private void push(char character) {
+    if (this.length == this.text.length) {
+      this.text = Arrays.copyOf(this.text, this.length << 1);
+    }
+
+    this.text[this.length++] = character;
+  }
+
+  private int accept(char character) {
+    boolean digit = character >= '0' && character <= '9';
+    switch (this.state) {
+      case NumberParser.START, NumberParser.SIGN -> {
+        if (this.state == NumberParser.START && (character == '-' || character == '+')) {
+          this.negative = character == '-';
+          return NumberParser.SIGN;
+        }
+
+        return digit ? this.acceptIntegerDigit(character) : character == '.' ? NumberParser.LEADING_POINT : NumberParser.INVALID;
+      }
+      case NumberParser.INTEGER -> {
+        if (digit) {
+          return this.acceptIntegerDigit(character);
+        }
+
+        return character == '.' ? NumberParser.POINT : character == 'e' || character == 'E' ? NumberParser.EXPONENT_MARKER : NumberParser.INVALID;
+      }
+      case NumberParser.LEADING_POINT, NumberParser.POINT, NumberParser.FRACTION -> {
+        if (digit) {
+          this.acceptMantissaDigit(character);
+          --this.decimalExponent;
+          return NumberParser.FRACTION;
+        }
+
+        return this.state != NumberParser.LEADING_POINT && (character == 'e' || character == 'E') ? NumberParser.EXPONENT_MARKER : NumberParser.INVALID;
+      }
+      case NumberParser.EXPONENT_MARKER -> {
+        if (character == '-' || character == '+') {
+          this.exponentNegative = character == '-';
+          return NumberParser.EXPONENT_SIGN;
+        }
+
+        return digit ? this.acceptExponentDigit(character) : NumberParser.INVALID;
+      }
+      case NumberParser.EXPONENT_SIGN, NumberParser.EXPONENT -> {
+        return digit ? this.acceptExponentDigit(character) : NumberParser.INVALID;
+      }
+      default -> {
+        return NumberParser.INVALID;
+      }
+    }
+  }
+
+  private int acceptIntegerDigit(char character) {
+    int digit = character - '0';
+    if (!this.integerOverflow) {
+      long limit = this.negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+      if (this.integerValue < limit / 10 || this.integerValue * 10 < limit + digit) {
+        this.integerOverflow = true;
+      } else {
+        this.integerValue = this.integerValue * 10 - digit;
+      }
+    }
+
+    this.acceptMantissaDigit(character);
+    return NumberParser.INTEGER;
+  }
+
+  private void acceptMantissaDigit(char character) {
+    if (this.mantissaDigits < NumberParser.MAX_MANTISSA_DIGITS) {
+      if (this.mantissaDigits != 0 || character != '0') { // Leading zeros are not significant.
+        this.mantissa = this.mantissa * 10 + (character - '0');
+        ++this.mantissaDigits;
+      }
+    } else {
+      // The digit doesn't fit, it is reflected only in the exponent and the slow path is forced if it is significant.
+      ++this.decimalExponent;
+      if (character != '0') {
+        this.mantissaTruncated = true;
+      }
+    }
+  }
+
+  private int acceptExponentDigit(char character) {
+    if (this.exponent < 100000) { // Anything larger is out of double range anyway.
+      this.exponent = this.exponent * 10 + (character - '0');
+    }
+
+    return NumberParser.EXPONENT;
+  }
+}
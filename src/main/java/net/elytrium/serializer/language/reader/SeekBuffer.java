@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2023 Elytrium
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package net.elytrium.serializer.language.reader;
+
+/**
+ * Growable ring of primitive chars, used to record characters after a mark and replay them after a reset.
+ */
+final class SeekBuffer {
+
+  private static final int INITIAL_CAPACITY = 64;
+
+  private char[] buffer = new char[SeekBuffer.INITIAL_CAPACITY];
+  private int mask = SeekBuffer.INITIAL_CAPACITY - 1;
+  // Positions only grow, the ring index is taken with the mask. Chars between head and cursor were already served,
+  // they are kept only while marked, chars between cursor and tail are waiting to be replayed.
+  private int head;
+  private int cursor;
+  private int tail;
+  private boolean marked;
+
+  boolean hasPending() {
+    return this.cursor != this.tail;
+  }
+
+  char next() {
+    char character = this.buffer[this.cursor++ & this.mask];
+    if (!this.marked) {
+      this.head = this.cursor;
+    }
+
+    return character;
+  }
+
+  void record(char character) {
+    if (this.marked) {
+      this.ensureCapacity();
+      this.buffer[this.tail++ & this.mask] = character;
+      this.cursor = this.tail;
+    }
+  }
+
+  void unread(char character) {
+    this.ensureCapacity();
+    this.buffer[--this.cursor & this.mask] = character;
+    if (this.head - this.cursor > 0) {
+      this.head = this.cursor;
+    }
+  }
+
+  boolean isMarked() {
+    return this.marked;
+  }
+
+  void mark() {
+    this.head = this.cursor;
+    this.marked = true;
+  }
+
+  void markFrom(char character) {
+    this.unread(character);
+    this.mark();
+    this.cursor++;
+  }
+
+  void reset() {
+    this.cursor = this.head;
+    this.marked = false;
+  }
+
+  void clearMark() {
+    this.head = this.cursor;
+    this.marked = false;
+  }
+
+  private void ensureCapacity() {
+    int size = this.tail - this.head;
+    if (size == this.buffer.length) {
+      char[] grown = new char[size << 1];
+      for (int i = 0; i < size; ++i) {
+        grown[i] = this.buffer[(this.head + i) & this.mask];
+      }
+
+      this.cursor -= this.head;
+      this.tail = size;
+      this.head = 0;
+      this.buffer = grown;
+      this.mask = grown.length - 1;
+    }
+  }
+}
@@ -21,38 +21,27 @@ import edu.umd.cs.findbugs.annotations.Nullable;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import java.io.BufferedReader;
 import java.lang.reflect.Field;
-import java.lang.reflect.Modifier;
 import java.lang.reflect.Type;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Deque;
-import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.logging.Level;
-import java.util.logging.Logger;
 import net.elytrium.serializer.SerializerConfig;
-import net.elytrium.serializer.annotations.FallbackNodeNames;
-import net.elytrium.serializer.annotations.Final;
-import net.elytrium.serializer.annotations.OverrideNameStyle;
-import net.elytrium.serializer.annotations.RegisterPlaceholders;
-import net.elytrium.serializer.annotations.Transient;
-import net.elytrium.serializer.custom.ClassSerializer;
+import net.elytrium.serializer.codec.SerializableCodec;
+import net.elytrium.serializer.descriptor.ClassDescriptor;
 import net.elytrium.serializer.language.object.YamlSerializable;
+import net.elytrium.serializer.language.reader.source.CharacterSource;
 import net.elytrium.serializer.language.writer.YamlWriter;
-import net.elytrium.serializer.placeholders.DefaultPlaceholderReplacer;
-import net.elytrium.serializer.placeholders.PlaceholderReplacer;
-import net.elytrium.serializer.placeholders.Placeholders;
-import net.elytrium.serializer.utils.GenericUtils;
 
 @SuppressWarnings({"StringRepeatCanBeUsed"}) // Ignore modern methods, because we support up to Java 8.
 public class YamlReader extends AbstractReader {
 
-  private static final Logger LOGGER = Logger.getLogger(YamlReader.class.getName());
-
   private final YamlSerializable yamlSerializable;
+  private final Deque<Frame> frames = new ArrayDeque<>();
+  private final StringBuilder nodeNameBuffer = new StringBuilder(16);
 
   private int currentIndent;
   private int seekIndent;
@@ -61,6 +50,7 @@ public class YamlReader extends AbstractReader {
   private boolean tempRestoreNewLine;
   private boolean bracketOpened;
   private boolean startOfFile = true;
+  private boolean documentStarted;
 
   private StringBuilder spacesBuffer;
 
@@ -80,230 +70,240 @@ public class YamlReader extends AbstractReader {
     this.yamlSerializable = null;
   }
 
+  public YamlReader(CharacterSource source, SerializerConfig config) {
+    super(config, source);
+    this.yamlSerializable = null;
+  }
+
+  @SuppressFBWarnings("EI_EXPOSE_REP2")
+  public YamlReader(CharacterSource source, SerializerConfig config, YamlSerializable serializable) {
+    super(config, source);
+    this.yamlSerializable = serializable;
+  }
+
   @Override
   @SuppressFBWarnings("SA_FIELD_SELF_COMPARISON")
   public void readSerializableObject(@Nullable Field owner, Object holder, Class<?> clazz) {
-    synchronized (this) {
-      this.unsetTempRestoreNewLine();
-      this.readBeginSerializableObject(owner);
-      Field[] nodes = clazz.getDeclaredFields();
-      if (nodes.length != 0) {
-        try {
-          // Register initial values and make nodeName->field map.
-          Map<String, Field> nodeFieldMap = new HashMap<>();
-          for (Field node : nodes) {
-            try {
-              node.setAccessible(true);
-            } catch (Exception e) {
-              continue;
-            }
-
-            Object value = node.get(holder);
-            this.removePlaceholders(value);
-            this.updatePlaceholders(node, value); // Updating placeholders here in case if on reload field was written and not read yet.
-
-            OverrideNameStyle overrideNameStyle = node.getAnnotation(OverrideNameStyle.class);
-            if (overrideNameStyle == null) {
-              overrideNameStyle = node.getType().getAnnotation(OverrideNameStyle.class);
-            }
-
-            nodeFieldMap.put(overrideNameStyle == null ? this.config.toNodeName(node.getName()) : this.config.toNodeName(node.getName(), overrideNameStyle.field(), overrideNameStyle.node()), node);
-
-            FallbackNodeNames fallbackNodeNames = node.getAnnotation(FallbackNodeNames.class);
-            if (fallbackNodeNames != null) {
-              for (String fallbackNodeName : fallbackNodeNames.value()) {
-                nodeFieldMap.put(fallbackNodeName, node);
-              }
-            }
+    this.unsetTempRestoreNewLine();
+    this.readBeginSerializableObject(owner);
+    try {
+      SerializableCodec<Object> codec = this.config.getSerializableCodec(clazz);
+      ClassDescriptor descriptor = codec == null ? this.prepareNodeFields(holder, clazz) : null;
+      if (descriptor == null || !descriptor.getFields().isEmpty()) {
+        int correctIndent = this.currentIndent;
+        CharSequence nodeName;
+        while (correctIndent == this.currentIndent && (nodeName = this.readNodeNameSequence(owner)) != null) {
+          if (descriptor == null) {
+            this.readNodeByName(owner, holder, codec, nodeName);
+          } else {
+            this.readNodeByName(owner, holder, descriptor, nodeName);
           }
 
-          int correctIndent = this.currentIndent;
-          String nodeName;
-          while (correctIndent == this.currentIndent && (nodeName = this.readNodeName(owner)) != null) {
-            try {
-              Field node = nodeFieldMap.get(nodeName);
-              if (node == null) {
-                this.skipGuessingType(owner);
-                this.setBackupPreferred();
-                if (this.config.isLogMissingFields()) {
-                  YamlReader.LOGGER.log(Level.WARNING, "Skipping node " + nodeName + " due to missing field");
-                }
-              } else {
-                int modifiers = node.getModifiers();
-                if (!Modifier.isStatic(modifiers) && !Modifier.isFinal(modifiers) && !Modifier.isTransient(modifiers)
-                    && node.getAnnotation(Final.class) == null && node.getType().getAnnotation(Final.class) == null
-                    && node.getAnnotation(Transient.class) == null && node.getType().getAnnotation(Transient.class) == null) {
-                  this.removePlaceholders(node.get(holder));
-                  this.updatePlaceholders(node, this.readNode(holder, node));
-                } else {
-                  this.skipNode(node);
-                }
-              }
-            } catch (ReflectiveOperationException e) {
-              this.skipGuessingType(owner);
-              this.setBackupPreferred();
-              if (this.config.isLogMissingFields()) {
-                YamlReader.LOGGER.log(Level.WARNING, "Skipping node " + nodeName + " due to exception caught", e);
-              }
-            }
+          this.readSerializableObjectEntryJoin(owner);
 
-            this.readSerializableObjectEntryJoin(owner);
-
-            if (this.readEndSerializableObject(owner)) {
-              return;
-            }
+          if (this.readEndSerializableObject(owner)) {
+            return;
+          }
 
-            if (correctIndent != this.currentIndent) {
-              while (true) {
-                if (!this.skipComments(owner, this.readRaw(), true)) {
-                  break;
-                }
+          if (correctIndent != this.currentIndent) {
+            while (true) {
+              if (!this.skipComments(owner, this.readRaw(), true)) {
+                break;
               }
             }
           }
-        } catch (ReflectiveOperationException e) {
-          throw new RuntimeException(e);
         }
       }
-
-      this.readEndSerializableObject(owner);
-    }
-  }
-
-  private void removePlaceholders(Object value) throws ReflectiveOperationException {
-    Placeholders.removePlaceholders(value);
-    if (value instanceof Collection<?> collection) {
-      for (Object entry : collection) {
-        Placeholders.removePlaceholders(entry);
-      }
-    }
-  }
-
-  private void updatePlaceholders(Field node, Object value) throws ReflectiveOperationException {
-    RegisterPlaceholders placeholders = node.getAnnotation(RegisterPlaceholders.class);
-    if (placeholders == null) {
-      placeholders = node.getType().getAnnotation(RegisterPlaceholders.class);
+    } catch (ReflectiveOperationException e) {
+      throw new RuntimeException(e);
     }
 
-    if (placeholders != null) {
-      PlaceholderReplacer<?, ?> replacer = null;
-      if (placeholders.replacer() == DefaultPlaceholderReplacer.class) {
-        replacer = value instanceof Collection<?>
-            ? this.config.getRegisteredReplacer((Class<?>) GenericUtils.getParameterType(Collection.class, node.getGenericType(), 0))
-            : this.config.getRegisteredReplacer(node.getType());
-      }
-
-      if (replacer == null) {
-        replacer = this.config.getAndCacheReplacer(placeholders.replacer());
-      }
-
-      if (this.config.isRegisterPlaceholdersForCollectionEntries() && value instanceof Collection<?> collection) {
-        for (Object entry : collection) {
-          Placeholders.addPlaceholders(entry, replacer, placeholders.wrapWithBraces(), placeholders.value());
-        }
-      }
-
-      Placeholders.addPlaceholders(value, replacer, placeholders.wrapWithBraces(), placeholders.value());
-    }
+    this.readEndSerializableObject(owner);
   }
 
   @Override
   public String readNodeName(@Nullable Field owner) {
-    synchronized (this) {
-      char marker = this.readRawIgnoreEmptyAndNewLines();
-      return marker == '\0' ? null : this.readNodeNameFromMarker(owner, marker);
-    }
+    char marker = this.readRawIgnoreEmptyAndNewLines();
+    return marker == '\0' ? null : this.readNodeNameFromMarker(owner, marker);
+  }
+
+  @Nullable
+  private CharSequence readNodeNameSequence(@Nullable Field owner) {
+    char marker = this.readRawIgnoreEmptyAndNewLines();
+    return marker == '\0' ? null : this.readNodeNameSequenceFromMarker(owner, marker);
   }
 
   @Override
   public void readBeginSerializableObject(@Nullable Field owner) {
-    synchronized (this) {
-      this.skipChar('{');
-    }
+    this.skipChar('{');
   }
 
   @Override
   public void readSerializableObjectEntryJoin(@Nullable Field owner) {
-    synchronized (this) {
-      this.skipChar(',');
-    }
+    this.skipChar(',');
   }
 
   @Override
   public boolean readEndSerializableObject(@Nullable Field owner) {
-    synchronized (this) {
-      return this.skipChar('}');
-    }
+    return this.skipChar('}');
   }
 
   @Override
   public Object readGuessingType(@Nullable Field owner) {
-    synchronized (this) {
-      return this.readGuessingTypeFromMarker(owner, this.readRawIgnoreEmpty());
-    }
+    return this.readGuessingTypeFromMarker(owner, this.readRawIgnoreEmpty());
   }
 
   @Override
-  public <C extends Map<Object, Object>> C readMap(@Nullable Field owner, C result, Type keyType, Type valueType) {
-    boolean startOfFile = this.startOfFile;
-    synchronized (this) {
+  public Token nextToken() {
+    Frame frame = this.frames.peek();
+    if (frame == null) {
+      if (this.documentStarted) {
+        return this.setToken(Token.END_DOCUMENT, null, null);
+      }
+
+      this.documentStarted = true;
+      boolean startOfFile = this.startOfFile;
       char marker = this.readRawIgnoreEmpty();
+      if (marker == '\0') {
+        return this.setToken(Token.END_DOCUMENT, null, null);
+      }
+
+      if (marker == '-' || marker == '[') {
+        return this.readValueToken(marker);
+      }
+
+      // The same as YamlReader#readMap(Field, Map, Type, Type) does.
       if (startOfFile) {
         this.setTempRestoreNewLine();
       }
 
-      return this.readMapFromMarker(owner, result, keyType, valueType, marker);
+      return this.beginToken(this.beginMapFromMarker(null, marker));
     }
+
+    if (frame.awaitingValue) {
+      frame.awaitingValue = false;
+      return this.readValueToken(this.readRawIgnoreEmpty());
+    }
+
+    if (frame.entryRead) {
+      this.endEntry(null, frame);
+    }
+
+    if (!this.hasNextEntry(frame)) {
+      this.frames.pop();
+      return this.setToken(frame.map ? Token.END_MAP : Token.END_LIST, null, null);
+    }
+
+    frame.entryRead = true;
+    if (frame.map) {
+      frame.awaitingValue = true;
+      String nodeName = this.readNodeNameFromMarker(null, frame.nextMarker);
+      return this.setToken(Token.KEY, nodeName, nodeName);
+    }
+
+    return this.readValueToken(this.readRawIgnoreEmpty());
+  }
+
+  private Token readValueToken(char marker) {
+    return this.beginToken(this.readScalarOrBeginFromMarker(null, marker));
+  }
+
+  private Token beginToken(@Nullable Object value) {
+    if (value instanceof Frame frame) {
+      this.frames.push(frame);
+      return this.setToken(frame.map ? Token.START_MAP : Token.START_LIST, null, null);
+    }
+
+    return this.setToken(Token.SCALAR, value == null ? null : value.toString(), value);
   }
 
   @Override
-  public <C extends Collection<Object>> C readCollection(@Nullable Field owner, C result, Type type) {
-    synchronized (this) {
-      return this.readCollectionFromMarker(owner, result, type, this.readRawIgnoreEmpty());
+  public <C extends Map<Object, Object>> C readMap(@Nullable Field owner, C result, Type keyType, Type valueType) {
+    boolean startOfFile = this.startOfFile;
+    char marker = this.readRawIgnoreEmpty();
+    if (startOfFile) {
+      this.setTempRestoreNewLine();
     }
+
+    return this.readMapFromMarker(owner, result, keyType, valueType, marker);
+  }
+
+  @Override
+  public <C extends Collection<Object>> C readCollection(@Nullable Field owner, C result, Type type) {
+    return this.readCollectionFromMarker(owner, result, type, this.readRawIgnoreEmpty());
   }
 
   @Override
   public Character readCharacter(@Nullable Field owner) {
-    synchronized (this) {
-      return this.readCharacterFromMarker(owner, this.readRawIgnoreEmpty());
-    }
+    return this.readCharacterFromMarker(owner, this.readRawIgnoreEmpty());
   }
 
   @Override
   public Boolean readBoolean(@Nullable Field owner) {
-    synchronized (this) {
-      return Boolean.valueOf(this.readString(owner));
-    }
+    return Boolean.valueOf(this.readString(owner));
   }
 
   @Override
   public Double readDouble(@Nullable Field owner) throws NumberFormatException {
-    synchronized (this) {
-      String value = this.readString(owner);
-      return value == null ? null : Double.valueOf(value);
+    NumberParser number = this.readNumberParser(owner);
+    if (number == null) {
+      return null;
     }
+
+    return number.isNumber() ? number.doubleValue() : Double.valueOf(number.toString());
   }
 
   @Override
   public Long readLong(@Nullable Field owner) throws NumberFormatException {
-    synchronized (this) {
-      String value = this.readString(owner);
-      return value == null ? null : Long.valueOf(value);
+    NumberParser number = this.readNumberParser(owner);
+    if (number == null) {
+      return null;
     }
+
+    return number.isLong() ? number.longValue() : Long.valueOf(number.toString());
   }
 
   @Override
-  public String readString(@Nullable Field owner) {
-    synchronized (this) {
-      return this.readStringFromMarker(owner, this.readRawIgnoreEmpty(), false);
+  public long readLongValue(@Nullable Field owner) {
+    return this.toLongValue(this.readNumberParser(owner));
+  }
+
+  @Override
+  public double readDoubleValue(@Nullable Field owner) {
+    return this.toDoubleValue(this.readNumberParser(owner));
+  }
+
+  @Override
+  protected Object readNumberSafely(@Nullable Field owner, boolean decimal) {
+    NumberParser number = this.readNumberParser(owner);
+    return number == null ? null : AbstractReader.toNumberOrMalformed(number, decimal);
+  }
+
+  @Nullable
+  private NumberParser readNumberParser(@Nullable Field owner) {
+    char marker = this.readRawIgnoreEmpty();
+    if (NumberParser.isNumberStart(marker)) {
+      return this.readNumberFromMarker(owner, marker);
     }
+
+    String value = this.readStringFromMarker(owner, marker, false);
+    return value == null ? null : this.numberParser.parse(value);
+  }
+
+  @Override
+  public String readString(@Nullable Field owner) {
+    return this.readStringFromMarker(owner, this.readRawIgnoreEmpty(), false);
   }
 
   private String readNodeNameFromMarker(@Nullable Field owner, char marker) {
-    synchronized (this) {
-      this.nodeIndent = this.currentIndent;
-    }
+    return this.readNodeNameSequenceFromMarker(owner, marker).toString();
+  }
+
+  /**
+   * Reads the node name at the marker, plain node names are read into the reused buffer, which stays valid until the next node name is read.
+   */
+  private CharSequence readNodeNameSequenceFromMarker(@Nullable Field owner, char marker) {
+    this.nodeIndent = this.currentIndent;
 
     while (true) {
       if (this.skipComments(owner, marker, false) || this.skipComments(owner, this.readRawIgnoreEmpty(), true)) {
@@ -313,64 +313,73 @@ public class YamlReader extends AbstractReader {
       }
     }
 
-    String nodeName;
     if (marker == '"' || marker == '\'') {
-      nodeName = this.readStringFromMarker(owner, marker, true);
-    } else {
-      StringBuilder result = new StringBuilder(12);
-      while (true) {
-        while (marker != ':') {
-          if (this.isEndMarker(marker)) {
-            throw new IllegalStateException("Got a new line in node name: " + result);
-          }
+      return this.readStringFromMarker(owner, marker, true);
+    }
 
-          result.append(marker);
-          marker = this.readRaw();
+    StringBuilder result = this.nodeNameBuffer;
+    result.setLength(0);
+    while (true) {
+      while (marker != ':') {
+        if (this.isEndMarker(marker)) {
+          throw new IllegalStateException("Got a new line in node name: " + result);
         }
 
+        result.append(marker);
         marker = this.readRaw();
-        if (Character.isWhitespace(marker)) {
-          this.setReuseBuffer();
-          break;
-        }
+      }
 
-        result.append(':');
+      marker = this.readRaw();
+      if (Character.isWhitespace(marker)) {
+        this.setReuseBuffer();
+        break;
       }
 
-      nodeName = result.toString();
+      result.append(':');
     }
 
-    return nodeName;
+    return result;
   }
 
   private Object readGuessingTypeFromMarker(@Nullable Field owner, char marker) {
+    Object value = this.readScalarOrBeginFromMarker(owner, marker);
+    if (value instanceof Frame frame) {
+      return frame.map
+          ? this.readMapEntries(owner, new LinkedHashMap<>(), Object.class, Object.class, frame)
+          : this.readCollectionEntries(owner, new ArrayList<>(), Object.class, frame);
+    }
+
+    return value;
+  }
+
+  /**
+   * Reads the scalar at the marker, or begins the container at the marker and returns its {@link Frame}.
+   */
+  private Object readScalarOrBeginFromMarker(@Nullable Field owner, char marker) {
     return switch (marker) {
       case AbstractReader.NEW_LINE -> {
         char nextMarker = this.readRawIgnoreEmpty();
         this.setReuseBuffer();
-        yield nextMarker == '-' ? this.readListFromMarker(owner, marker) : this.readMapFromMarker(owner, marker);
+        yield nextMarker == '-' ? this.beginCollectionFromMarker(owner, marker) : this.beginMapFromMarker(owner, marker);
       }
       case '-' -> {
         this.setReuseBuffer();
         this.setSeek();
         String string = this.readString(owner);
         if (string != null) {
-          try {
-            try {
-              yield Long.parseLong(string);
-            } catch (NumberFormatException e) {
-              yield Double.parseDouble(string);
-            }
-          } catch (NumberFormatException ignored) {
-            // Exception ignored as the string doesn't contain negative number here, but contains a list.
+          Number number = this.guessNumber(string);
+          if (number != null) {
+            yield number;
           }
         }
 
+        // The string doesn't contain negative number here, but contains a list.
+
         this.unsetSeek();
-        yield this.readListFromMarker(owner, AbstractReader.NEW_LINE);
+        yield this.beginCollectionFromMarker(owner, AbstractReader.NEW_LINE);
       }
-      case '[' -> this.readListFromMarker(owner, marker);
-      case '{' -> this.readMapFromMarker(owner, marker);
+      case '[' -> this.beginCollectionFromMarker(owner, marker);
+      case '{' -> this.beginMapFromMarker(owner, marker);
       case '"', '\'', '>', '|' -> this.readStringFromMarker(owner, marker, false);
       default -> {
         if (this.isNullSkippedFromMarker(marker)) {
@@ -386,30 +395,33 @@ public class YamlReader extends AbstractReader {
         if (string.endsWith(":") || string.endsWith(": ") || string.contains(": ")) {
           this.unsetSeek();
           this.unsetTempRestoreNewLine();
-          yield this.readMapFromMarker(owner, AbstractReader.NEW_LINE);
+          yield this.beginMapFromMarker(owner, AbstractReader.NEW_LINE);
         } else {
           this.clearSeek();
-          try {
-            try {
-              yield Long.parseLong(string);
-            } catch (NumberFormatException e) {
-              yield Double.parseDouble(string);
-            }
-          } catch (NumberFormatException e) {
-            yield string;
-          }
+          Number number = this.guessNumber(string);
+          yield number == null ? string : number;
         }
       }
     };
   }
 
-  private Map<Object, Object> readMapFromMarker(@Nullable Field owner, char marker) {
-    return this.readMapFromMarker(owner, new LinkedHashMap<>(), Object.class, Object.class, marker);
+  private <C extends Map<Object, Object>> C readMapFromMarker(@Nullable Field owner, C result, Type keyType, Type valueType, char marker) {
+    Frame frame = this.beginMapFromMarker(owner, marker);
+    return frame == null ? null : this.readMapEntries(owner, result, keyType, valueType, frame);
+  }
+
+  private <C extends Map<Object, Object>> C readMapEntries(@Nullable Field owner, C result, Type keyType, Type valueType, Frame frame) {
+    while (this.hasNextEntry(frame)) {
+      this.readMapEntry(owner, keyType, valueType, this.readNodeNameFromMarker(null, frame.nextMarker), result);
+      this.endEntry(owner, frame);
+    }
+
+    return result;
   }
 
+  @Nullable
   @SuppressWarnings("DuplicatedCode")
-  @SuppressFBWarnings("SA_FIELD_SELF_COMPARISON")
-  private <C extends Map<Object, Object>> C readMapFromMarker(@Nullable Field owner, C result, Type keyType, Type valueType, char marker) {
+  private Frame beginMapFromMarker(@Nullable Field owner, char marker) {
     if (this.skipComments(owner, marker, false)) { // TODO сделать чтобы map:#comm не читалось
       marker = AbstractReader.NEW_LINE;
     }
@@ -427,26 +439,11 @@ public class YamlReader extends AbstractReader {
     switch (marker) {
       case '{' -> {
         this.bracketOpened = true;
-        while (nextMarker != '}') {
-          this.readMapEntry(owner, keyType, valueType, this.readNodeNameFromMarker(null, nextMarker), result);
-          nextMarker = this.readRawIgnoreEmptyAndNewLines();
-        }
-
-        this.bracketOpened = previousBracketOpened;
+        return new Frame(true, true, 0, previousBracketOpened, nextMarker);
       }
       case AbstractReader.NEW_LINE -> {
         this.bracketOpened = false;
-        int correctIndent = this.currentIndent;
-        while (nextMarker != '\0' && correctIndent == this.currentIndent) {
-          this.readMapEntry(owner, keyType, valueType, this.readNodeNameFromMarker(null, nextMarker), result);
-          nextMarker = this.readRawIgnoreEmptyAndNewLines();
-          if (this.skipComments(owner, nextMarker, false)) {
-            nextMarker = this.readRawIgnoreEmptyAndNewLines();
-          }
-        }
-
-        this.setReuseBuffer();
-        this.bracketOpened = previousBracketOpened;
+        return new Frame(true, false, this.currentIndent, previousBracketOpened, nextMarker);
       }
       default -> {
         if (this.isNullSkippedFromMarker(marker)) {
@@ -456,78 +453,39 @@ public class YamlReader extends AbstractReader {
         }
       }
     }
-
-    return result;
   }
 
-  @SuppressWarnings({"unchecked", "rawtypes"})
-  private void readMapEntry(@Nullable Field owner, Type keyType, Type valueType, String nodeName, Map<Object, Object> result) {
-    Object key;
-    if (keyType == Object.class) {
-      try {
-        try {
-          key = Long.parseLong(nodeName);
-        } catch (NumberFormatException e) {
-          key = Double.parseDouble(nodeName);
-        }
-      } catch (NumberFormatException e) {
-        key = nodeName;
-      }
-    } else if (keyType instanceof Class<?> keyClazz) {
-      if (String.class.isAssignableFrom(keyClazz)) {
-        key = nodeName;
-      } else if (Character.class.isAssignableFrom(keyClazz) || char.class.isAssignableFrom(keyClazz)) {
-        if (nodeName.isEmpty()) {
-          throw new IllegalStateException("Character can't be null!");
-        } else {
-          key = nodeName.charAt(0);
-        }
-      } else if (keyClazz.isEnum()) {
-        key = Enum.valueOf((Class<? extends Enum>) keyClazz, nodeName);
-      } else if (Boolean.class.isAssignableFrom(keyClazz) || boolean.class.isAssignableFrom(keyClazz)) {
-        key = Boolean.valueOf(nodeName);
-      } else if (Number.class.isAssignableFrom(keyClazz) || keyClazz.isPrimitive()) {
-        if (Double.class.isAssignableFrom(keyClazz) || double.class.isAssignableFrom(keyClazz)) {
-          key = Double.valueOf(nodeName);
-        } else if (Float.class.isAssignableFrom(keyClazz) || float.class.isAssignableFrom(keyClazz)) {
-          key = Float.valueOf(nodeName);
-        } else if (Long.class.isAssignableFrom(keyClazz) || long.class.isAssignableFrom(keyClazz)) {
-          key = Long.valueOf(nodeName);
-        } else if (Integer.class.isAssignableFrom(keyClazz) || int.class.isAssignableFrom(keyClazz)) {
-          key = Integer.valueOf(nodeName);
-        } else if (Short.class.isAssignableFrom(keyClazz) || short.class.isAssignableFrom(keyClazz)) {
-          key = Short.valueOf(nodeName);
-        } else if (Byte.class.isAssignableFrom(keyClazz) || byte.class.isAssignableFrom(keyClazz)) {
-          key = Byte.valueOf(nodeName);
-        } else {
-          throw new IllegalStateException("Number " + keyClazz + " for map key are not supported yet!");
-        }
-      } else {
-        Deque<ClassSerializer<?, Object>> serializerStack = new ArrayDeque<>(Math.min(16, this.config.getRegisteredSerializers() + 1/*See AbstractReader#readNode*/));
-        Type type = this.fillSerializerStack(serializerStack, keyClazz);
-        if (serializerStack.isEmpty()) {
-          throw new IllegalStateException("Class " + keyClazz + " for map key are not supported yet!");
-        }
+  private <C extends Collection<Object>> C readCollectionFromMarker(@Nullable Field owner, C result, Type type, char marker) {
+    Frame frame = this.beginCollectionFromMarker(owner, marker);
+    return frame == null ? null : this.readCollectionEntries(owner, result, type, frame);
+  }
 
-        if (!(type instanceof Class<?>) || Map.class.isAssignableFrom((Class<?>) type) || Collection.class.isAssignableFrom((Class<?>) type)) {
-          throw new IllegalStateException("Class " + type + " for map key is not supported!");
-        }
+  @Override
+  public boolean readCollectionEntries(@Nullable Field owner, CollectionEntryReader entryReader) {
+    Frame frame = this.beginCollectionFromMarker(owner, this.readRawIgnoreEmpty());
+    if (frame == null) {
+      return false;
+    }
 
-        key = this.readAndDeserializeByType(owner, null, type, serializerStack);
-      }
-    } else {
-      throw new IllegalStateException("Type " + keyType + " for map key are not supported yet!");
+    while (this.hasNextEntry(frame)) {
+      entryReader.readEntry(frame.flow ? owner : null);
+      this.endEntry(owner, frame);
     }
 
-    result.put(key, this.readByType0(owner, valueType));
+    return true;
   }
 
-  private List<Object> readListFromMarker(@Nullable Field owner, char marker) {
-    return this.readCollectionFromMarker(owner, new ArrayList<>(), Object.class, marker);
+  private <C extends Collection<Object>> C readCollectionEntries(@Nullable Field owner, C result, Type type, Frame frame) {
+    while (this.hasNextEntry(frame)) {
+      result.add(this.readByType0(frame.flow ? owner : null, type));
+      this.endEntry(owner, frame);
+    }
+
+    return result;
   }
 
-  @SuppressFBWarnings("SA_FIELD_SELF_COMPARISON")
-  private <C extends Collection<Object>> C readCollectionFromMarker(@Nullable Field owner, C result, Type type, char marker) {
+  @Nullable
+  private Frame beginCollectionFromMarker(@Nullable Field owner, char marker) {
     if (this.skipComments(owner, marker, false)) { // TODO сделать чтобы collection:#comm не читалось
       marker = AbstractReader.NEW_LINE;
     }
@@ -535,13 +493,7 @@ public class YamlReader extends AbstractReader {
     this.unsetTempRestoreNewLine();
     switch (marker) {
       case '[': {
-        char nextMarker = this.readRawIgnoreEmptyAndNewLines();
-        while (nextMarker != ']') {
-          result.add(this.readByType0(owner, type));
-          nextMarker = this.readRawIgnoreEmptyAndNewLines();
-        }
-
-        break;
+        return new Frame(false, true, 0, this.bracketOpened, this.readRawIgnoreEmptyAndNewLines());
       }
       case AbstractReader.NEW_LINE: {
         this.skipComments(owner, this.readRawIgnoreEmpty(), true);
@@ -552,20 +504,7 @@ public class YamlReader extends AbstractReader {
       } // Got '-' after newline, fall through here.
       case '-': {
         this.nodeIndent = this.currentIndent;
-        char nextMarker = '-';
-        int correctIndent = this.currentIndent;
-        while (nextMarker == '-' && correctIndent == this.currentIndent) {
-          this.setTempRestoreNewLine();
-          result.add(this.readByType0(null, type));
-          this.unsetTempRestoreNewLine();
-          nextMarker = this.readRawIgnoreEmptyAndNewLines();
-          if (this.skipComments(owner, nextMarker, false)) {
-            nextMarker = this.readRawIgnoreEmptyAndNewLines();
-          }
-        }
-
-        this.setReuseBuffer();
-        break;
+        return new Frame(false, false, this.currentIndent, this.bracketOpened, '-');
       }
       default: {
         if (this.isNullSkippedFromMarker(marker)) {
@@ -575,17 +514,48 @@ public class YamlReader extends AbstractReader {
         }
       }
     }
+  }
 
-    return result;
+  /**
+   * Checks if the container has one more entry, the container is finished otherwise.
+   */
+  @SuppressFBWarnings("SA_FIELD_SELF_COMPARISON")
+  private boolean hasNextEntry(Frame frame) {
+    if (frame.flow) {
+      if (frame.nextMarker != (frame.map ? '}' : ']')) {
+        return true;
+      }
+    } else if (frame.map) {
+      if (frame.nextMarker != '\0' && frame.correctIndent == this.currentIndent) {
+        return true;
+      }
+
+      this.setReuseBuffer();
+    } else {
+      if (frame.nextMarker == '-' && frame.correctIndent == this.currentIndent) {
+        this.setTempRestoreNewLine();
+        return true;
+      }
+
+      this.setReuseBuffer();
+    }
+
+    if (frame.map) {
+      this.bracketOpened = frame.previousBracketOpened;
+    }
+
+    return false;
   }
 
-  private Object readByType0(@Nullable Field owner, Type type) {
-    Object result = this.readByType(owner, type);
-    return type == Integer.class || type == int.class ? Integer.valueOf(((Long) result).intValue())
-        : type == Short.class || type == short.class ? Short.valueOf(((Long) result).shortValue())
-        : type == Byte.class || type == byte.class ? Byte.valueOf(((Long) result).byteValue())
-        : type == Float.class || type == float.class ? Float.valueOf(((Double) result).floatValue())
-        : result; // Long || Double
+  private void endEntry(@Nullable Field owner, Frame frame) {
+    if (!frame.flow && !frame.map) {
+      this.unsetTempRestoreNewLine();
+    }
+
+    frame.nextMarker = this.readRawIgnoreEmptyAndNewLines();
+    if (!frame.flow && this.skipComments(owner, frame.nextMarker, false)) {
+      frame.nextMarker = this.readRawIgnoreEmptyAndNewLines();
+    }
   }
 
   private Character readCharacterFromMarker(@Nullable Field owner, char marker) {
@@ -644,48 +614,6 @@ public class YamlReader extends AbstractReader {
     return result;
   }
 
-  private int readEscapedCharacter() {
-    synchronized (this) {
-      char marker;
-      return switch (marker = this.readRaw()) {
-        case '0' -> '\0';
-        case 'a' -> '\u0007';
-        case 'b' -> '\b';
-        case 't' -> '\t';
-        case 'n' -> '\n';
-        case 'v' -> '\u000B';
-        case 'f' -> '\f';
-        case 'r' -> '\r';
-        case 'e' -> '\u001B';
-        case ' ' -> ' ';
-        case '"' -> '\"';
-        case '\\' -> '\\';
-        case 'N' -> '\u0085';
-        case '_' -> '\u00A0';
-        case 'L' -> '\u2028';
-        case 'P' -> '\u2029';
-        case 'x' -> this.readHexChar(2);
-        case 'u' -> this.readHexChar(4);
-        case 'U' -> this.readHexChar(8);
-        default -> throw new IllegalStateException("Invalid escape character: \\" + marker);
-      };
-    }
-  }
-
-  private int readHexChar(int size) {
-    StringBuilder hex = new StringBuilder(size);
-    for (int i = 0; i < size; ++i) {
-      char character = this.readRaw();
-      if (this.isEndMarker(character)) {
-        throw new IllegalStateException("Got new line while reading hex char");
-      }
-
-      hex.append(character);
-    }
-
-    return Integer.parseInt(hex.toString(), 16);
-  }
-
   private String readStringFromMarker(@Nullable Field owner, char marker, boolean nodeName) {
     StringBuilder result = new StringBuilder();
     switch (marker) {
@@ -845,6 +773,29 @@ public class YamlReader extends AbstractReader {
     return result.toString();
   }
 
+  /**
+   * Reads the plain scalar straight into the number parser, the scalar ends the same way as in YamlReader#readStringFromMarker(Field, char, boolean).
+   */
+  private NumberParser readNumberFromMarker(@Nullable Field owner, char marker) {
+    NumberParser number = this.numberParser;
+    number.reset();
+    while (!this.isEndMarker(marker) && (marker != ',' || this.bracketOpened) && (!Character.isWhitespace(marker) || !this.skipComments(owner, this.readRaw(), true))) {
+      if (Character.isWhitespace(marker)) {
+        number.appendWhitespace(marker);
+      } else {
+        number.append(marker);
+      }
+
+      marker = this.readRaw();
+    }
+
+    if (this.yamlSerializable != null && owner != null) {
+      this.yamlSerializable.saveStringStyle(owner, YamlWriter.StringStyle.NOT_QUOTED);
+    }
+
+    return number;
+  }
+
   @SuppressWarnings("DuplicatedCode")
   private void readMultilineStringFromMarker(@Nullable Field owner, char marker, StringBuilder result) {
     boolean keepNewLines = switch (marker) {
@@ -945,9 +896,7 @@ public class YamlReader extends AbstractReader {
 
   @Override
   public void skipGuessingType(@Nullable Field owner) {
-    synchronized (this) {
-      this.skipGuessingTypeFromMarker(owner, this.readRawIgnoreEmpty());
-    }
+    this.skipGuessingTypeFromMarker(owner, this.readRawIgnoreEmpty());
   }
 
   private void skipGuessingTypeFromMarker(@Nullable Field owner, char marker) {
@@ -988,9 +937,7 @@ public class YamlReader extends AbstractReader {
 
   @Override
   public void skipCollection(@Nullable Field owner) {
-    synchronized (this) {
-      this.skipCollectionFromMarker(owner, this.readRawIgnoreEmpty());
-    }
+    this.skipCollectionFromMarker(owner, this.readRawIgnoreEmpty());
   }
 
   @SuppressFBWarnings("SA_FIELD_SELF_COMPARISON")
@@ -1044,14 +991,12 @@ public class YamlReader extends AbstractReader {
   @Override
   public void skipMap(@Nullable Field owner) {
     boolean startOfFile = this.startOfFile;
-    synchronized (this) {
-      char marker = this.readRawIgnoreEmpty();
-      if (startOfFile) {
-        this.setTempRestoreNewLine();
-      }
-
-      this.skipMapFromMarker(owner, marker);
+    char marker = this.readRawIgnoreEmpty();
+    if (startOfFile) {
+      this.setTempRestoreNewLine();
     }
+
+    this.skipMapFromMarker(owner, marker);
   }
 
   @SuppressWarnings("DuplicatedCode")
@@ -1107,9 +1052,7 @@ public class YamlReader extends AbstractReader {
 
   @Override
   public void skipString(@Nullable Field owner) {
-    synchronized (this) {
-      this.skipStringFromMarker(owner, this.readRawIgnoreEmpty(), false);
-    }
+    this.skipStringFromMarker(owner, this.readRawIgnoreEmpty(), false);
   }
 
   private void skipStringFromMarker(@Nullable Field owner, char marker, boolean nodeName) {
@@ -1218,28 +1161,26 @@ public class YamlReader extends AbstractReader {
 
   @Override
   public boolean skipComments(@Nullable Field owner, char marker, boolean reuse) {
-    synchronized (this) {
-      if (marker == '#') {
-        while (true) {
-          if (this.isEndMarker(this.readRaw())) {
-            break;
-          }
+    if (marker == '#') {
+      while (true) {
+        if (this.isEndMarker(this.readRaw())) {
+          break;
         }
-
-        this.readRawIgnoreEmptyAndNewLines();
-        this.setReuseBuffer();
-        return true;
       }
 
-      // Need in case if we're parsing plain string without quotes.
-      // (e.g. `string: string#bad comment` would be parsed as "text#bad comment", otherwise `string: text #normal comment` would be parsed as "text",
-      // see default case in YamlReader#readStringFromMarker(char, boolean))
-      if (reuse) {
-        this.setReuseBuffer();
-      }
+      this.readRawIgnoreEmptyAndNewLines();
+      this.setReuseBuffer();
+      return true;
+    }
 
-      return false;
+    // Need in case if we're parsing plain string without quotes.
+    // (e.g. `string: string#bad comment` would be parsed as "text#bad comment", otherwise `string: text #normal comment` would be parsed as "text",
+    // see default case in YamlReader#readStringFromMarker(char, boolean))
+    if (reuse) {
+      this.setReuseBuffer();
     }
+
+    return false;
   }
 
   protected boolean isEndMarker(char marker) {
@@ -1248,27 +1189,21 @@ public class YamlReader extends AbstractReader {
 
   @Override
   public void setSeek() {
-    synchronized (this) {
-      this.seekIndent = this.currentIndent;
-    }
+    this.seekIndent = this.currentIndent;
 
     super.setSeek();
   }
 
   @Override
   public void setSeekFromMarker(char marker) {
-    synchronized (this) {
-      this.seekIndent = this.currentIndent - 1;
-    }
+    this.seekIndent = this.currentIndent - 1;
 
     super.setSeekFromMarker(marker);
   }
 
   @Override
   public void unsetSeek() {
-    synchronized (this) {
-      this.currentIndent = this.seekIndent;
-    }
+    this.currentIndent = this.seekIndent;
 
     super.unsetSeek();
   }
@@ -1276,18 +1211,16 @@ public class YamlReader extends AbstractReader {
   @Override
   public char readRaw() {
     this.startOfFile = false;
-    synchronized (this) {
-      boolean shouldIndent = !this.isReuseBuffer();
-      char character = super.readRaw();
-      if (character == AbstractReader.NEW_LINE) {
-        this.newLineIndent = this.currentIndent + 1;
-        this.currentIndent = 0;
-      } else if (shouldIndent) {
-        ++this.currentIndent;
-      }
-
-      return character;
+    boolean shouldIndent = !this.isReuseBuffer();
+    char character = super.readRaw();
+    if (character == AbstractReader.NEW_LINE) {
+      this.newLineIndent = this.currentIndent + 1;
+      this.currentIndent = 0;
+    } else if (shouldIndent) {
+      ++this.currentIndent;
     }
+
+    return character;
   }
 
   private boolean isNullSkippedFromMarker(char marker) {
@@ -1320,4 +1253,27 @@ public class YamlReader extends AbstractReader {
   private void unsetTempRestoreNewLine() {
     this.tempRestoreNewLine = false;
   }
+
+  /**
+   * State of the container being read, shared by the recursive reading and {@link #nextToken()}.
+   */
+  private static final class Frame {
+
+    private final boolean map;
+    private final boolean flow;
+    private final int correctIndent;
+    private final boolean previousBracketOpened;
+
+    private char nextMarker;
+    private boolean entryRead;
+    private boolean awaitingValue;
+
+    private Frame(boolean map, boolean flow, int correctIndent, boolean previousBracketOpened, char nextMarker) {
+      this.map = map;
+      this.flow = flow;
+      this.correctIndent = correctIndent;
+      this.previousBracketOpened = previousBracketOpened;
+      this.nextMarker = nextMarker;
+    }
+  }
 }
@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2023 Elytrium
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package net.elytrium.serializer.language.reader.source;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Decodes UTF-8 from a memory-mapped file. Files larger than the mapping window are mapped window by window,
+ * so the parsing doesn't copy the file into the heap and the pages are shared with the OS page cache.
+ */
+public class MappedFileCharacterSource extends Utf8CharacterSource implements Closeable {
+
+  public static final long DEFAULT_MAPPING_WINDOW = 64L << 20;
+
+  private final FileChannel channel;
+  private final long size;
+  private final long mappingWindow;
+
+  private long mappingStart;
+
+  /**
+   * @param channel The channel to map, it will be closed by {@link #close()}, but stays open if the constructor throws.
+   * @param mappingWindow The maximum size of a single mapping in bytes.
+   */
+  public MappedFileCharacterSource(FileChannel channel, long mappingWindow) throws IOException {
+    super(MappedFileCharacterSource.map(channel, 0, mappingWindow));
+    this.channel = channel;
+    this.size = channel.size();
+    this.mappingWindow = mappingWindow;
+  }
+
+  public static MappedFileCharacterSource open(Path path) throws IOException {
+    return MappedFileCharacterSource.open(path, MappedFileCharacterSource.DEFAULT_MAPPING_WINDOW);
+  }
+
+  /**
+   * Opens the file and maps its first window, the file is closed if the mapping fails.
+   */
+  public static MappedFileCharacterSource open(Path path, long mappingWindow) throws IOException {
+    FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+    try {
+      return new MappedFileCharacterSource(channel, mappingWindow);
+    } catch (IOException | RuntimeException e) {
+      try {
+        channel.close();
+      } catch (IOException closeException) {
+        e.addSuppressed(closeException);
+      }
+
+      throw e;
+    }
+  }
+
+  @Override
+  protected ByteBuffer refill(ByteBuffer buffer) throws IOException {
+    if (this.mappingStart + buffer.limit() >= this.size) {
+      return null;
+    }
+
+    // Remap from the first unread byte, so the sequences split by the previous window end up in the new one.
+    this.mappingStart += buffer.position();
+    return MappedFileCharacterSource.map(this.channel, this.mappingStart, this.mappingWindow);
+  }
+
+  @Override
+  public void close() throws IOException {
+    this.channel.close();
+  }
+
+  private static ByteBuffer map(FileChannel channel, long position, long mappingWindow) throws IOException {
+    if (mappingWindow < 4 || mappingWindow > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Mapping window should be between 4 and " + Integer.MAX_VALUE + " bytes, got " + mappingWindow);
+    }
+
+    return channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(channel.size() - position, mappingWindow));
+  }
+}
@@ -0,0 +1,213 @@
+/*
+ * Copyright (C) 2023 Elytrium
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package net.elytrium.serializer.language.reader.source;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.MalformedInputException;
+import javax.annotation.Nullable;
+
+/**
+ * Decodes UTF-8 straight from bytes into the reader window, without a {@link java.nio.charset.CharsetDecoder} and its intermediate buffers.
+ * Malformed input is reported with {@link MalformedInputException}, the same way {@link java.nio.file.Files#newBufferedReader} does.
+ */
+public class Utf8CharacterSource implements CharacterSource {
+
+  private static final int DEFAULT_BUFFER_SIZE = 8192;
+
+  @Nullable
+  private final InputStream stream;
+
+  private ByteBuffer buffer;
+
+  private boolean endOfStream;
+  private char pendingLowSurrogate;
+
+  public Utf8CharacterSource(byte[] bytes) {
+    this(ByteBuffer.wrap(bytes));
+  }
+
+  /**
+   * Decodes the remaining bytes of the buffer, advancing its position.
+   */
+  @SuppressFBWarnings("EI_EXPOSE_REP2")
+  public Utf8CharacterSource(ByteBuffer buffer) {
+    this.stream = null;
+    this.buffer = buffer;
+    this.endOfStream = true;
+  }
+
+  public Utf8CharacterSource(InputStream stream) {
+    this(stream, Utf8CharacterSource.DEFAULT_BUFFER_SIZE);
+  }
+
+  public Utf8CharacterSource(InputStream stream, int bufferSize) {
+    if (bufferSize < 4) {
+      throw new IllegalArgumentException("Buffer size should be at least 4 bytes, got " + bufferSize);
+    }
+
+    this.stream = stream;
+    this.buffer = ByteBuffer.allocate(bufferSize);
+    this.buffer.flip();
+  }
+
+  @Override
+  public int read(char[] window, int offset, int length) throws IOException {
+    int position = offset;
+    int end = offset + length;
+    if (this.pendingLowSurrogate != 0 && position < end) {
+      window[position++] = this.pendingLowSurrogate;
+      this.pendingLowSurrogate = 0;
+    }
+
+    while (position < end && (this.buffer.hasRemaining() || this.fill())) {
+      ByteBuffer buffer = this.buffer;
+      // ASCII fast path, structural characters and most of the node names are single bytes.
+      int index = buffer.position();
+      int limit = Math.min(buffer.limit(), index + end - position);
+      byte value;
+      if (buffer.hasArray()) {
+        byte[] array = buffer.array();
+        int arrayOffset = buffer.arrayOffset();
+        while (index < limit && (value = array[arrayOffset + index]) >= 0) {
+          window[position++] = (char) value;
+          ++index;
+        }
+      } else {
+        while (index < limit && (value = buffer.get(index)) >= 0) {
+          window[position++] = (char) value;
+          ++index;
+        }
+      }
+
+      buffer.position(index);
+      if (position < end && index < buffer.limit() && buffer.get(index) < 0) {
+        position = this.decodeSequence(window, position, end);
+      }
+    }
+
+    return position == offset && length != 0 ? -1 : position - offset;
+  }
+
+  private int decodeSequence(char[] window, int position, int end) throws IOException {
+    ByteBuffer buffer = this.buffer;
+    int lead = buffer.get(buffer.position()) & 0xFF;
+    int size;
+    int codePoint;
+    int minSecond = 0x80;
+    int maxSecond = 0xBF;
+    if (lead >= 0xC2 && lead <= 0xDF) {
+      size = 2;
+      codePoint = lead & 0x1F;
+    } else if (lead >= 0xE0 && lead <= 0xEF) {
+      size = 3;
+      codePoint = lead & 0x0F;
+      if (lead == 0xE0) {
+        minSecond = 0xA0; // Overlong encoding.
+      } else if (lead == 0xED) {
+        maxSecond = 0x9F; // Surrogates.
+      }
+    } else if (lead >= 0xF0 && lead <= 0xF4) {
+      size = 4;
+      codePoint = lead & 0x07;
+      if (lead == 0xF0) {
+        minSecond = 0x90; // Overlong encoding.
+      } else if (lead == 0xF4) {
+        maxSecond = 0x8F; // Above U+10FFFF.
+      }
+    } else {
+      throw new MalformedInputException(1);
+    }
+
+    if (buffer.remaining() < size) {
+      if (!this.fill(size)) {
+        throw new MalformedInputException(this.buffer.remaining());
+      }
+
+      buffer = this.buffer;
+    }
+
+    int index = buffer.position();
+    for (int i = 1; i < size; ++i) {
+      int continuation = buffer.get(index + i) & 0xFF;
+      if (i == 1 ? (continuation < minSecond || continuation > maxSecond) : (continuation & 0xC0) != 0x80) {
+        throw new MalformedInputException(i);
+      }
+
+      codePoint = (codePoint << 6) | (continuation & 0x3F);
+    }
+
+    buffer.position(index + size);
+    if (size != 4) {
+      window[position++] = (char) codePoint;
+    } else {
+      window[position++] = Character.highSurrogate(codePoint);
+      if (position < end) {
+        window[position++] = Character.lowSurrogate(codePoint);
+      } else {
+        this.pendingLowSurrogate = Character.lowSurrogate(codePoint);
+      }
+    }
+
+    return position;
+  }
+
+  private boolean fill() throws IOException {
+    return this.fill(1);
+  }
+
+  /**
+   * Refills until at least the required amount of bytes is available.
+   */
+  private boolean fill(int required) throws IOException {
+    while (this.buffer.remaining() < required) {
+      ByteBuffer buffer = this.refill(this.buffer);
+      if (buffer == null) {
+        return false;
+      }
+
+      this.buffer = buffer;
+    }
+
+    return true;
+  }
+
+  /**
+   * Returns a buffer holding the remaining bytes of the current buffer followed by more input, or null if there is no more input.
+   */
+  @Nullable
+  protected ByteBuffer refill(ByteBuffer buffer) throws IOException {
+    if (this.endOfStream || this.stream == null) {
+      return null;
+    }
+
+    buffer.compact();
+    int read = this.stream.read(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+    if (read == -1) {
+      this.endOfStream = true;
+    } else {
+      buffer.position(buffer.position() + read);
+    }
+
+    buffer.flip();
+    return buffer;
+  }
+}
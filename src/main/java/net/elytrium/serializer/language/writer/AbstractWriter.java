@@ -19,29 +19,37 @@ package net.elytrium.serializer.language.writer;
 
 import java.io.BufferedWriter;
 import java.io.IOException;
+import java.lang.reflect.Array;
 import java.lang.reflect.Field;
-import java.lang.reflect.Modifier;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 import javax.annotation.Nullable;
 import net.elytrium.serializer.SerializerConfig;
 import net.elytrium.serializer.annotations.Comment;
 import net.elytrium.serializer.annotations.CommentValue;
 import net.elytrium.serializer.annotations.NewLine;
-import net.elytrium.serializer.annotations.OverrideNameStyle;
 import net.elytrium.serializer.annotations.Serializer;
-import net.elytrium.serializer.annotations.Transient;
+import net.elytrium.serializer.codec.SerializableCodec;
 import net.elytrium.serializer.custom.ClassSerializer;
+import net.elytrium.serializer.descriptor.FieldDescriptor;
 import net.elytrium.serializer.exceptions.ReflectionException;
 import net.elytrium.serializer.exceptions.SerializableWriteException;
 
+/**
+ * Takes no locks, so a writer should be used by one thread at a time.
+ * See {@link #writeSynchronized(Consumer)} for sharing one writer between threads.
+ */
 public abstract class AbstractWriter {
 
   protected static final char NEW_LINE = '\n';
 
   protected final SerializerConfig config;
   protected final BufferedWriter writer;
+  private final ReentrantLock lock = new ReentrantLock();
 
   private boolean first = true;
 
@@ -55,115 +63,98 @@ public abstract class AbstractWriter {
     this.writer = writer;
   }
 
+  /**
+   * Runs the writes holding the writer lock, every thread sharing the writer should write through this method.
+   * The lock is not a monitor, so blocking writes don't pin virtual threads.
+   */
+  public void writeSynchronized(Consumer<? super AbstractWriter> writes) {
+    this.lock.lock();
+    try {
+      writes.accept(this);
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
   public void writeSerializableObject(Object value, Class<?> clazz) {
     this.writeSerializableObject(null, value, clazz);
   }
 
   public void writeSerializableObject(@Nullable Field owner, Object value, Class<?> clazz) {
-    synchronized (this) {
-      boolean first = false;
-      if (this.first) {
-        first = true;
-        this.first = false;
-      }
+    boolean first = false;
+    if (this.first) {
+      first = true;
+      this.first = false;
+    }
 
-      Field[] fields = clazz.getDeclaredFields();
-      boolean empty = true;
-      int counter = 0;
-      int lastVisibleFieldIndex = 0;
-      for (int i = fields.length - 1; i >= 0; --i) {
-        if (this.isFieldVisible(fields[i])) {
-          lastVisibleFieldIndex = i + 1;
-          break;
-        }
-      }
+    SerializableCodec<Object> codec = this.config.getSerializableCodec(clazz);
+    if (codec == null) {
+      this.writeSerializableObjectFields(owner, value, clazz);
+    } else {
+      codec.write(this, owner, value);
+    }
+
+    if (first) {
+      this.writeLine();
+    }
+  }
+
+  private void writeSerializableObjectFields(@Nullable Field owner, Object value, Class<?> clazz) {
+    List<FieldDescriptor> fields = this.config.getClassDescriptor(clazz).getVisibleFields();
+    boolean empty = true;
+    for (int i = 0, size = fields.size(); i < size; ++i) {
+      FieldDescriptor descriptor = fields.get(i);
+      try {
+        this.writeNewLines(descriptor.getNewLine());
+
+        Object nodeValue = descriptor.getField().get(value);
+        Serializer serializer = descriptor.getSerializer();
+        nodeValue = this.serializeNode(serializer == null ? null : this.config.getAndCacheSerializer(serializer), nodeValue);
 
-      for (Field field : fields) {
-        ++counter;
-        if (this.isFieldVisible(field)) {
-          try {
-            NewLine newLines = field.getAnnotation(NewLine.class);
-            if (newLines == null) {
-              newLines = field.getType().getAnnotation(NewLine.class);
-            }
-
-            if (newLines != null) {
-              for (int i = newLines.amount() - 1; i >= 1; --i) {
-                this.writeRaw(this.config.getLineSeparator());
-              }
-
-              this.writeLine();
-            }
-
-            Object nodeValue = field.get(value);
-            Serializer serializer = field.getAnnotation(Serializer.class);
-            if (serializer == null) {
-              serializer = field.getType().getAnnotation(Serializer.class);
-            }
-
-            if (serializer != null) {
-              nodeValue = this.config.getAndCacheSerializer(serializer).serialize(nodeValue);
-            }
-
-            if (nodeValue != null) {
-              nodeValue = this.serializeValue(nodeValue);
-            }
-
-            OverrideNameStyle overrideNameStyle = field.getAnnotation(OverrideNameStyle.class);
-            if (overrideNameStyle == null) {
-              overrideNameStyle = field.getType().getAnnotation(OverrideNameStyle.class);
-            }
-
-            if (empty) {
-              empty = false;
-              this.writeBeginMap(owner);
-            }
-
-            Comment[] comments;
-            Comment[] classComments = field.getType().getAnnotationsByType(Comment.class);
-            Comment[] fieldComments = field.getAnnotationsByType(Comment.class);
-            if (classComments.length == 0 || fieldComments.length == 0) {
-              comments = classComments.length == 0 ? fieldComments : classComments;
-            } else {
-              comments = new Comment[classComments.length + fieldComments.length];
-              System.arraycopy(classComments, 0, comments, 0, classComments.length);
-              System.arraycopy(fieldComments, 0, comments, classComments.length, fieldComments.length);
-            }
-
-            this.writeMapEntry(
-                field,
-                overrideNameStyle == null ? this.config.toNodeName(field.getName()) : this.config.toNodeName(field.getName(), overrideNameStyle.field(), overrideNameStyle.node()),
-                nodeValue,
-                counter != lastVisibleFieldIndex,
-                comments
-            );
-          } catch (ReflectiveOperationException e) {
-            throw new ReflectionException(e);
-          }
+        if (empty) {
+          empty = false;
+          this.writeBeginMap(owner);
         }
-      }
 
-      if (empty) {
-        this.writeEmptyMap();
-      } else {
-        this.writeEndMap(owner);
+        this.writeMapEntry(descriptor.getField(), descriptor.getNodeName(), nodeValue, i + 1 != size, descriptor.getComments());
+      } catch (ReflectiveOperationException e) {
+        throw new ReflectionException(e);
       }
+    }
 
-      if (first) {
-        this.writeLine();
-      }
+    if (empty) {
+      this.writeEmptyMap();
+    } else {
+      this.writeEndMap(owner);
     }
   }
 
-  private boolean isFieldVisible(Field field) {
-    try {
-      field.setAccessible(true);
-    } catch (Exception e) {
-      return false;
+  private void writeNewLines(@Nullable NewLine newLines) {
+    if (newLines != null) {
+      this.writeNewLines(newLines.amount());
+    }
+  }
+
+  /**
+   * Writes the empty lines of the {@link NewLine} annotation before the node.
+   */
+  public void writeNewLines(int amount) {
+    for (int i = amount - 1; i >= 1; --i) {
+      this.writeRaw(this.config.getLineSeparator());
     }
 
-    int modifiers = field.getModifiers();
-    return !Modifier.isStatic(modifiers) && !Modifier.isTransient(modifiers) && field.getAnnotation(Transient.class) == null && field.getType().getAnnotation(Transient.class) == null;
+    this.writeLine();
+  }
+
+  /**
+   * Serializes the node value by the serializer from the {@link Serializer} annotation and by the registered serializers.
+   */
+  public Object serializeNode(@Nullable ClassSerializer<Object, ?> serializer, @Nullable Object nodeValue) {
+    if (serializer != null) {
+      nodeValue = serializer.serialize(nodeValue);
+    }
+
+    return nodeValue == null ? null : this.serializeValue(nodeValue);
   }
 
   private Object serializeValue(Object nodeValue) {
@@ -183,20 +174,18 @@ public abstract class AbstractWriter {
   }
 
   public void writeMapEntry(@Nullable Field owner, String nodeName, Object node, boolean shouldJoin, Comment[] comments) {
-    synchronized (this) {
-      this.writeComments(owner, comments, Comment.At.PREPEND, true);
-      this.writeNodeName(owner, nodeName);
-      this.writeNode(owner, node, null);
-      if (shouldJoin) {
-        this.writeMapPreCommentEntryJoin(owner);
-      }
-      this.writeComments(owner, comments, Comment.At.SAME_LINE, true);
-      if (shouldJoin) {
-        this.writeMapPostCommentEntryJoin(owner);
-      }
-      this.writeMapEntryEnd(owner);
-      this.writeComments(owner, comments, Comment.At.APPEND, shouldJoin);
+    this.writeComments(owner, comments, Comment.At.PREPEND, true);
+    this.writeNodeName(owner, nodeName);
+    this.writeNode(owner, node, null);
+    if (shouldJoin) {
+      this.writeMapPreCommentEntryJoin(owner);
+    }
+    this.writeComments(owner, comments, Comment.At.SAME_LINE, true);
+    if (shouldJoin) {
+      this.writeMapPostCommentEntryJoin(owner);
     }
+    this.writeMapEntryEnd(owner);
+    this.writeComments(owner, comments, Comment.At.APPEND, shouldJoin);
   }
 
   public void writeComments(Comment[] comments, Comment.At currentPosition, boolean shouldJoin) {
@@ -204,17 +193,15 @@ public abstract class AbstractWriter {
   }
 
   public void writeComments(@Nullable Field owner, Comment[] comments, Comment.At currentPosition, boolean shouldJoin) {
-    synchronized (this) {
-      if (comments != null && comments.length != 0) {
-        for (int i = 0; i < comments.length - 1; ++i) {
-          if (currentPosition == comments[i].at()) {
-            this.writeComment(owner, comments[i], true);
-          }
+    if (comments != null && comments.length != 0) {
+      for (int i = 0; i < comments.length - 1; ++i) {
+        if (currentPosition == comments[i].at()) {
+          this.writeComment(owner, comments[i], true);
         }
+      }
 
-        if (currentPosition == comments[comments.length - 1].at()) {
-          this.writeComment(owner, comments[comments.length - 1], shouldJoin);
-        }
+      if (currentPosition == comments[comments.length - 1].at()) {
+        this.writeComment(owner, comments[comments.length - 1], shouldJoin);
       }
     }
   }
@@ -224,20 +211,18 @@ public abstract class AbstractWriter {
   }
 
   public void writeComment(@Nullable Field owner, Comment comment, boolean shouldJoin) {
-    synchronized (this) {
-      for (CommentValue line : comment.value()) {
-        if (line.type() == CommentValue.Type.NEW_LINE) {
+    for (CommentValue line : comment.value()) {
+      if (line.type() == CommentValue.Type.NEW_LINE) {
+        this.writeCommentEnd(owner, comment.at());
+      } else {
+        if (!shouldJoin) {
+          this.writeLine();
+        }
+        this.writeCommentStart(owner, comment.at());
+        this.writeCommentValueIndent(owner, comment.at(), this.getCommentValueIndent(comment, line));
+        this.writeRaw(line.value());
+        if (shouldJoin) {
           this.writeCommentEnd(owner, comment.at());
-        } else {
-          if (!shouldJoin) {
-            this.writeLine();
-          }
-          this.writeCommentStart(owner, comment.at());
-          this.writeCommentValueIndent(owner, comment.at(), this.getCommentValueIndent(comment, line));
-          this.writeRaw(line.value());
-          if (shouldJoin) {
-            this.writeCommentEnd(owner, comment.at());
-          }
         }
       }
     }
@@ -285,26 +270,26 @@ public abstract class AbstractWriter {
 
   @SuppressWarnings("unchecked")
   public void writeNode(@Nullable Field owner, Object value, Comment[] comments) {
-    synchronized (this) {
-      if (value == null) {
-        this.writeRaw("null");
+    if (value == null) {
+      this.writeRaw("null");
+    } else {
+      value = this.serializeValue(value);
+      if (value instanceof Map) {
+        this.writeMap(owner, (Map<Object, Object>) value, comments);
+      } else if (value instanceof Collection<?>) {
+        this.writeCollection(owner, (Collection<Object>) value, comments);
+      } else if (value.getClass().isArray()) {
+        this.writeArray(owner, value, comments);
+      } else if (value instanceof String) {
+        this.writeString(owner, (String) value);
+      } else if (value instanceof Character) {
+        this.writeCharacter(owner, (Character) value);
+      } else if (value instanceof Enum) {
+        this.writeEnum(owner, (Enum<?>) value);
+      } else if (value instanceof Boolean || value instanceof Number || value.getClass().isPrimitive()) {
+        this.writeRaw(value.toString());
       } else {
-        value = this.serializeValue(value);
-        if (value instanceof Map) {
-          this.writeMap(owner, (Map<Object, Object>) value, comments);
-        } else if (value instanceof Collection<?>) {
-          this.writeCollection(owner, (Collection<Object>) value, comments);
-        } else if (value instanceof String) {
-          this.writeString(owner, (String) value);
-        } else if (value instanceof Character) {
-          this.writeCharacter(owner, (Character) value);
-        } else if (value instanceof Enum) {
-          this.writeEnum(owner, (Enum<?>) value);
-        } else if (value instanceof Boolean || value instanceof Number || value.getClass().isPrimitive()) {
-          this.writeRaw(value.toString());
-        } else {
-          this.writeSerializableObject(owner, value, value.getClass());
-        }
+        this.writeSerializableObject(owner, value, value.getClass());
       }
     }
   }
@@ -314,23 +299,21 @@ public abstract class AbstractWriter {
   }
 
   public void writeMap(@Nullable Field owner, Map<Object, Object> value, Comment[] comments) {
-    synchronized (this) {
-      if (value.isEmpty()) {
-        this.writeEmptyMap(owner);
-        this.writeComments(owner, comments, Comment.At.SAME_LINE, true);
-      } else {
-        this.writeBeginMap(owner);
-        this.writeComments(owner, comments, Comment.At.SAME_LINE, true);
-
-        Set<Map.Entry<Object, Object>> entries = value.entrySet();
-        int counter = 0;
-        int entriesAmount = entries.size();
-        for (Map.Entry<Object, Object> entry : entries) {
-          this.writeMapEntry(null, entry.getKey().toString(), entry.getValue(), ++counter != entriesAmount, null);
-        }
+    if (value.isEmpty()) {
+      this.writeEmptyMap(owner);
+      this.writeComments(owner, comments, Comment.At.SAME_LINE, true);
+    } else {
+      this.writeBeginMap(owner);
+      this.writeComments(owner, comments, Comment.At.SAME_LINE, true);
 
-        this.writeEndMap(owner);
+      Set<Map.Entry<Object, Object>> entries = value.entrySet();
+      int counter = 0;
+      int entriesAmount = entries.size();
+      for (Map.Entry<Object, Object> entry : entries) {
+        this.writeMapEntry(null, entry.getKey().toString(), entry.getValue(), ++counter != entriesAmount, null);
       }
+
+      this.writeEndMap(owner);
     }
   }
 
@@ -375,27 +358,51 @@ public abstract class AbstractWriter {
   }
 
   public void writeCollection(@Nullable Field owner, Collection<Object> value, Comment[] comments) {
-    synchronized (this) {
-      if (value.isEmpty()) {
-        this.writeEmptyCollection(owner);
-        this.writeComments(owner, comments, Comment.At.SAME_LINE, true);
-      } else {
-        this.writeBeginCollection(owner);
-        this.writeComments(owner, comments, Comment.At.SAME_LINE, true);
-
-        int counter = 0;
-        int entriesAmount = value.size();
-        for (Object entry : value) {
-          this.writeCollectionEntry(owner, entry);
-          if (++counter != entriesAmount) {
-            this.writeCollectionEntryJoin(owner);
-          }
-
-          this.writeCollectionEntryEnd(owner);
+    if (value.isEmpty()) {
+      this.writeEmptyCollection(owner);
+      this.writeComments(owner, comments, Comment.At.SAME_LINE, true);
+    } else {
+      this.writeBeginCollection(owner);
+      this.writeComments(owner, comments, Comment.At.SAME_LINE, true);
+
+      int counter = 0;
+      int entriesAmount = value.size();
+      for (Object entry : value) {
+        this.writeCollectionEntry(owner, entry);
+        if (++counter != entriesAmount) {
+          this.writeCollectionEntryJoin(owner);
         }
 
-        this.writeEndCollection(owner);
+        this.writeCollectionEntryEnd(owner);
       }
+
+      this.writeEndCollection(owner);
+    }
+  }
+
+  public void writeArray(Object value, Comment[] comments) {
+    this.writeArray(null, value, comments);
+  }
+
+  public void writeArray(@Nullable Field owner, Object value, Comment[] comments) {
+    int length = Array.getLength(value);
+    if (length == 0) {
+      this.writeEmptyCollection(owner);
+      this.writeComments(owner, comments, Comment.At.SAME_LINE, true);
+    } else {
+      this.writeBeginCollection(owner);
+      this.writeComments(owner, comments, Comment.At.SAME_LINE, true);
+
+      for (int i = 0; i < length; ++i) {
+        this.writeCollectionEntry(owner, Array.get(value, i));
+        if (i + 1 != length) {
+          this.writeCollectionEntryJoin(owner);
+        }
+
+        this.writeCollectionEntryEnd(owner);
+      }
+
+      this.writeEndCollection(owner);
     }
   }
 
@@ -452,9 +459,7 @@ public abstract class AbstractWriter {
   }
 
   public void writeEnum(@Nullable Field owner, Enum<?> value) {
-    synchronized (this) {
-      this.writeRaw(value.name());
-    }
+    this.writeRaw(value.name());
   }
 
   public void writeBoolean(boolean value) {
@@ -462,9 +467,7 @@ public abstract class AbstractWriter {
   }
 
   public void writeBoolean(@Nullable Field owner, boolean value) {
-    synchronized (this) {
-      this.writeRaw(String.valueOf(value));
-    }
+    this.writeRaw(String.valueOf(value));
   }
 
   public void writeNumber(Number value) {
@@ -472,9 +475,7 @@ public abstract class AbstractWriter {
   }
 
   public void writeNumber(@Nullable Field owner, Number value) {
-    synchronized (this) {
-      this.writeRaw(value.toString());
-    }
+    this.writeRaw(value.toString());
   }
 
   public abstract void writeLine();
@@ -25,6 +25,8 @@ import net.elytrium.serializer.annotations.Comment;
 
 public class JsonWriter extends YamlWriter {
 
+  private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
   private String singleIndent = "  ";
   private String currentIndent = "";
 
@@ -37,49 +39,59 @@ public class JsonWriter extends YamlWriter {
   }
 
   @Override
-  public void writeCommentStart(@Nullable Field owner, Comment.At at) {
-    synchronized (this) {
-      if (at != Comment.At.SAME_LINE) {
-        this.writeIndent();
-      }
+  public void writeComment(@Nullable Field owner, Comment comment, boolean shouldJoin) {
+    // Line comments are always terminated, otherwise the closing bracket would end up inside of the comment.
+    super.writeComment(owner, comment, true);
+  }
 
-      this.writeRaw("//");
+  @Override
+  public void writeCommentStart(@Nullable Field owner, Comment.At at) {
+    if (at != Comment.At.SAME_LINE) {
+      this.writeIndent();
     }
+
+    this.writeRaw("//");
   }
 
   @Override
   public void writeCommentEnd(@Nullable Field owner, Comment.At at) {
-    synchronized (this) {
-      if (at != Comment.At.SAME_LINE) {
-        this.writeLine();
-      }
+    if (at != Comment.At.SAME_LINE) {
+      this.writeLine();
     }
   }
 
   @Override
   public void writeNodeName(@Nullable Field owner, String nodeName) {
-    synchronized (this) {
-      this.writeIndent();
-      this.writeRaw('"');
-      this.writeRaw(nodeName);
-      this.writeRaw("\": ");
-    }
+    this.writeIndent();
+    this.writeQuoted(nodeName);
+    this.writeRaw(": ");
+  }
+
+  @Override
+  public void writeString(@Nullable Field owner, String value) {
+    this.writeQuoted(value);
+  }
+
+  @Override
+  public void writeCharacter(@Nullable Field owner, char value) {
+    this.writeQuoted(String.valueOf(value));
+  }
+
+  @Override
+  public void writeEnum(@Nullable Field owner, Enum<?> value) {
+    this.writeQuoted(value.name());
   }
 
   @Override
   public void writeBeginMap(@Nullable Field owner) {
-    synchronized (this) {
-      this.addIndent();
-      this.writeRaw('{');
-      this.writeLine();
-    }
+    this.addIndent();
+    this.writeRaw('{');
+    this.writeLine();
   }
 
   @Override
   public void writeMapPreCommentEntryJoin(@Nullable Field owner) {
-    synchronized (this) {
-      this.writeRaw(',');
-    }
+    this.writeRaw(',');
   }
 
   @Override
@@ -89,71 +101,84 @@ public class JsonWriter extends YamlWriter {
 
   @Override
   public void writeMapEntryEnd(@Nullable Field owner) {
-    synchronized (this) {
-      this.writeLine();
-    }
+    this.writeLine();
   }
 
   @Override
   public void writeEndMap(@Nullable Field owner) {
-    synchronized (this) {
-      this.removeIndent();
-      this.writeIndent();
-      this.writeRaw('}');
-    }
+    this.removeIndent();
+    this.writeIndent();
+    this.writeRaw('}');
   }
 
   @Override
   public void writeBeginCollection(@Nullable Field owner) {
-    synchronized (this) {
-      this.addIndent();
-      this.writeRaw('[');
-      this.writeLine();
-    }
+    this.addIndent();
+    this.writeRaw('[');
+    this.writeLine();
   }
 
   @Override
   public void writeCollectionEntry(@Nullable Field owner, Object entry) {
-    synchronized (this) {
-      this.writeIndent();
-      this.writeNode(entry, null);
-    }
+    this.writeIndent();
+    this.writeNode(entry, null);
   }
 
   @Override
   public void writeCollectionEntryJoin(@Nullable Field owner) {
-    synchronized (this) {
-      this.writeRaw(',');
-    }
+    this.writeRaw(',');
   }
 
   @Override
   public void writeCollectionEntryEnd(@Nullable Field owner) {
-    synchronized (this) {
-      this.writeLine();
-    }
+    this.writeLine();
   }
 
   @Override
   public void writeEndCollection(@Nullable Field owner) {
-    synchronized (this) {
-      this.removeIndent();
-      this.writeIndent();
-      this.writeRaw(']');
-    }
+    this.removeIndent();
+    this.writeIndent();
+    this.writeRaw(']');
   }
 
   @Override
   public void writeLine() {
-    synchronized (this) {
-      super.writeRaw(this.config.getLineSeparator());
-    }
+    super.writeRaw(this.config.getLineSeparator());
   }
 
   public void setSingleIndent(String singleIndent) {
     this.singleIndent = singleIndent;
   }
 
+  private void writeQuoted(String value) {
+    this.writeRaw('"');
+    for (int i = 0, length = value.length(); i < length; ++i) {
+      char character = value.charAt(i);
+      switch (character) {
+        case '"' -> this.writeRaw("\\\"");
+        case '\\' -> this.writeRaw("\\\\");
+        case '\b' -> this.writeRaw("\\b");
+        case '\f' -> this.writeRaw("\\f");
+        case '\n' -> this.writeRaw("\\n");
+        case '\r' -> this.writeRaw("\\r");
+        case '\t' -> this.writeRaw("\\t");
+        default -> {
+          if (character < ' ' || character == '\u2028' || character == '\u2029'
+              || (Character.isIdentifierIgnorable(character) && !this.config.isAllowUnicode())) {
+            this.writeRaw("\\u");
+            for (int shift = 12; shift >= 0; shift -= 4) {
+              this.writeRaw(JsonWriter.HEX_DIGITS[(character >> shift) & 0xF]);
+            }
+          } else {
+            this.writeRaw(character);
+          }
+        }
+      }
+    }
+
+    this.writeRaw('"');
+  }
+
   private void writeIndent() {
     this.writeRaw(this.currentIndent);
   }
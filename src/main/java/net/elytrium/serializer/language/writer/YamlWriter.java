@@ -56,54 +56,42 @@ public class YamlWriter extends AbstractWriter {
 
   @Override
   public void writeCommentStart(@Nullable Field owner, Comment.At at) {
-    synchronized (this) {
-      if (at == Comment.At.SAME_LINE) {
-        this.writeRaw(" #");
-      } else {
-        this.writeRaw(this.currentIndent);
-        this.writeRaw('#');
-      }
+    if (at == Comment.At.SAME_LINE) {
+      this.writeRaw(" #");
+    } else {
+      this.writeRaw(this.currentIndent);
+      this.writeRaw('#');
     }
   }
 
   @Override
   public void writeCommentValueIndent(@Nullable Field owner, Comment.At at, int indent) {
-    synchronized (this) {
-      for (int i = 0; i < indent; ++i) {
-        this.writeRaw(' ');
-      }
+    for (int i = 0; i < indent; ++i) {
+      this.writeRaw(' ');
     }
   }
 
   @Override
   public void writeCommentEnd(@Nullable Field owner, Comment.At at) {
-    synchronized (this) {
-      if (at != Comment.At.SAME_LINE) {
-        this.writeLine();
-      }
+    if (at != Comment.At.SAME_LINE) {
+      this.writeLine();
     }
   }
 
   @Override
   public void writeNodeName(@Nullable Field owner, String value) {
-    synchronized (this) {
-      this.writeIndent();
-      this.writeString0(owner, value, true);
-    }
+    this.writeIndent();
+    this.writeString0(owner, value, true);
   }
 
   @Override
   public void writeEmptyMap(@Nullable Field owner) {
-    synchronized (this) {
-      this.writeRaw("{}");
-    }
+    this.writeRaw("{}");
   }
 
   @Override
   public void writeBeginMap(@Nullable Field owner) {
-    synchronized (this) {
-      this.writeBeginCommon();
-    }
+    this.writeBeginCommon();
   }
 
   @Override
@@ -113,9 +101,7 @@ public class YamlWriter extends AbstractWriter {
 
   @Override
   public void writeMapPostCommentEntryJoin(@Nullable Field owner) {
-    synchronized (this) {
-      this.writeLine();
-    }
+    this.writeLine();
   }
 
   @Override
@@ -125,42 +111,32 @@ public class YamlWriter extends AbstractWriter {
 
   @Override
   public void writeEndMap(@Nullable Field owner) {
-    synchronized (this) {
-      this.removeIndent();
-    }
+    this.removeIndent();
   }
 
   @Override
   public void writeEmptyCollection(@Nullable Field owner) {
-    synchronized (this) {
-      this.writeRaw("[]");
-    }
+    this.writeRaw("[]");
   }
 
   @Override
   public void writeBeginCollection(@Nullable Field owner) {
-    synchronized (this) {
-      this.writeBeginCommon();
-    }
+    this.writeBeginCommon();
   }
 
   @Override
   public void writeCollectionEntry(@Nullable Field owner, Object entry) {
-    synchronized (this) {
-      this.writeIndent();
+    this.writeIndent();
 
-      this.writeRaw("- ");
-      this.setTempDisableNewLine();
-      this.writeNode(entry, null);
-      this.unsetTempDisableNewLine();
-    }
+    this.writeRaw("- ");
+    this.setTempDisableNewLine();
+    this.writeNode(entry, null);
+    this.unsetTempDisableNewLine();
   }
 
   @Override
   public void writeCollectionEntryJoin(@Nullable Field owner) {
-    synchronized (this) {
-      this.writeLine();
-    }
+    this.writeLine();
   }
 
   @Override
@@ -170,37 +146,29 @@ public class YamlWriter extends AbstractWriter {
 
   @Override
   public void writeEndCollection(@Nullable Field owner) {
-    synchronized (this) {
-      this.removeIndent();
-    }
+    this.removeIndent();
   }
 
   @Override
   public void writeString(@Nullable Field owner, String value) {
-    synchronized (this) {
-      this.writeString0(owner, value, false);
-    }
+    this.writeString0(owner, value, false);
   }
 
   @Override
   public void writeCharacter(@Nullable Field owner, char value) {
-    synchronized (this) {
-      boolean shouldUseQuotes = YamlWriter.shouldUseQuotes(value, true, false);
-      if (shouldUseQuotes) {
-        this.writeRaw('"');
-      }
-      this.writeCharacter0(value, true);
-      if (shouldUseQuotes) {
-        this.writeRaw('"');
-      }
+    boolean shouldUseQuotes = YamlWriter.shouldUseQuotes(value, true, false);
+    if (shouldUseQuotes) {
+      this.writeRaw('"');
+    }
+    this.writeCharacter0(value, true);
+    if (shouldUseQuotes) {
+      this.writeRaw('"');
     }
   }
 
   @Override
   public void writeLine() {
-    synchronized (this) {
-      super.writeRaw(this.config.getLineSeparator());
-    }
+    super.writeRaw(this.config.getLineSeparator());
   }
 
   private void writeString0(@Nullable Field owner, String value, boolean nodeName) {
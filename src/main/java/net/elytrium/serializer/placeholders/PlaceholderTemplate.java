@@ -0,0 +1,205 @@
+/*
+ * Copyright (C) 2023 Elytrium
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package net.elytrium.serializer.placeholders;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.Nullable;
+
+/**
+ * String with its placeholders resolved to argument slots, replaces the same way as {@link DefaultPlaceholderReplacer} without searching the string.
+ * Doesn't reference the compiled string, so it can be kept next to a weakly referenced value.
+ */
+final class PlaceholderTemplate {
+
+  private final String[] literals;
+  private final int[] slots;
+  private final int placeholders;
+  private final int literalsLength;
+  private volatile byte[][] utf8Literals;
+
+  private PlaceholderTemplate(String[] literals, int[] slots, int placeholders, int literalsLength) {
+    this.literals = literals;
+    this.slots = slots;
+    this.placeholders = placeholders;
+    this.literalsLength = literalsLength;
+  }
+
+  /**
+   * Splits the value by the leftmost placeholder matches, the earlier placeholder wins if two of them match at the same index.
+   *
+   * @return null if the placeholders can't be compiled.
+   */
+  @Nullable
+  static PlaceholderTemplate compile(String value, String[] placeholders) {
+    for (String placeholder : placeholders) {
+      if (placeholder.isEmpty()) {
+        return null;
+      }
+    }
+
+    List<String> literals = new ArrayList<>();
+    List<Integer> slots = new ArrayList<>();
+    int literalsLength = 0;
+    int start = 0;
+    while (true) {
+      int textIndex = -1;
+      int replaceIndex = -1;
+      for (int i = 0; i < placeholders.length; ++i) {
+        int index = value.indexOf(placeholders[i], start);
+        if (index != -1 && (textIndex == -1 || index < textIndex)) {
+          textIndex = index;
+          replaceIndex = i;
+        }
+      }
+
+      if (textIndex == -1) {
+        break;
+      }
+
+      literals.add(value.substring(start, textIndex));
+      slots.add(replaceIndex);
+      literalsLength += textIndex - start;
+      start = textIndex + placeholders[replaceIndex].length();
+    }
+
+    literals.add(value.substring(start));
+    literalsLength += value.length() - start;
+
+    int[] slotsArray = new int[slots.size()];
+    for (int i = 0; i < slotsArray.length; ++i) {
+      slotsArray[i] = slots.get(i);
+    }
+
+    return new PlaceholderTemplate(literals.toArray(new String[0]), slotsArray, placeholders.length, literalsLength);
+  }
+
+  /**
+   * @param value The compiled string, returned as is if there is nothing to replace.
+   */
+  String replace(String value, Object... values) {
+    if (!this.hasReplacements(values)) {
+      return value;
+    }
+
+    int[] slots = this.slots;
+    int length = this.literalsLength;
+    for (int slot : slots) {
+      length += values[slot] instanceof String string ? string.length() : 16;
+    }
+
+    StringBuilder result = new StringBuilder(length);
+    String[] literals = this.literals;
+    for (int i = 0; i < slots.length; ++i) {
+      result.append(literals[i]).append(values[slots[i]]);
+    }
+
+    return result.append(literals[slots.length]).toString();
+  }
+
+  void appendTo(Appendable destination, String value, Object... values) throws IOException {
+    if (!this.hasReplacements(values)) {
+      destination.append(value);
+      return;
+    }
+
+    int[] slots = this.slots;
+    String[] literals = this.literals;
+    for (int i = 0; i < slots.length; ++i) {
+      Object replacement = values[slots[i]];
+      destination.append(literals[i]).append(replacement instanceof CharSequence sequence ? sequence : String.valueOf(replacement));
+    }
+
+    destination.append(literals[slots.length]);
+  }
+
+  void encodeUtf8(ByteBuffer destination, String value, Object... values) {
+    if (!this.hasReplacements(values)) {
+      PlaceholderTemplate.encodeUtf8(destination, value);
+      return;
+    }
+
+    byte[][] literals = this.utf8Literals;
+    if (literals == null) {
+      literals = new byte[this.literals.length][];
+      for (int i = 0; i < literals.length; ++i) {
+        literals[i] = this.literals[i].getBytes(StandardCharsets.UTF_8);
+      }
+
+      this.utf8Literals = literals;
+    }
+
+    int[] slots = this.slots;
+    for (int i = 0; i < slots.length; ++i) {
+      Object replacement = values[slots[i]];
+      destination.put(literals[i]);
+      PlaceholderTemplate.encodeUtf8(destination, replacement instanceof CharSequence sequence ? sequence : String.valueOf(replacement));
+    }
+
+    destination.put(literals[slots.length]);
+  }
+
+  /**
+   * Checks the values the same way as {@link DefaultPlaceholderReplacer#replace(String, String[], Object...)} does.
+   *
+   * @return false if the value stays as is.
+   */
+  private boolean hasReplacements(Object[] values) {
+    if (this.placeholders == 1) {
+      if (values.length == 0) {
+        return false;
+      }
+    } else if (this.placeholders != 0 && this.placeholders != values.length) {
+      throw new IllegalArgumentException("Search and Replace array lengths don't match: " + this.placeholders + " vs " + values.length);
+    }
+
+    return this.slots.length != 0;
+  }
+
+  /**
+   * Encodes the characters as {@link String#getBytes(java.nio.charset.Charset)} does, unpaired surrogates become '?'.
+   */
+  static void encodeUtf8(ByteBuffer destination, CharSequence value) {
+    for (int i = 0, length = value.length(); i < length; ++i) {
+      char character = value.charAt(i);
+      if (character < 0x80) {
+        destination.put((byte) character);
+      } else if (character < 0x800) {
+        destination.put((byte) (0xC0 | (character >> 6)));
+        destination.put((byte) (0x80 | (character & 0x3F)));
+      } else if (Character.isSurrogate(character)) {
+        if (Character.isHighSurrogate(character) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+          int codePoint = Character.toCodePoint(character, value.charAt(++i));
+          destination.put((byte) (0xF0 | (codePoint >> 18)));
+          destination.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+          destination.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+          destination.put((byte) (0x80 | (codePoint & 0x3F)));
+        } else {
+          destination.put((byte) '?');
+        }
+      } else {
+        destination.put((byte) (0xE0 | (character >> 12)));
+        destination.put((byte) (0x80 | ((character >> 6) & 0x3F)));
+        destination.put((byte) (0x80 | (character & 0x3F)));
+      }
+    }
+  }
+}
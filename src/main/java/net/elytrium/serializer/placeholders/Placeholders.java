@@ -17,31 +17,37 @@
 
 package net.elytrium.serializer.placeholders;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.lang.reflect.Array;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nullable;
 
 @SuppressWarnings("unchecked")
 public class Placeholders {
 
-  private static final Map<Integer, Placeholderable<?, ?>> PLACEHOLDERS = new HashMap<>();
+  private static final WeakIdentityMap<Placeholderable<?, ?>> PLACEHOLDERS = new WeakIdentityMap<>();
+  private static final Map<Integer, Placeholderable<?, ?>> HASHED_PLACEHOLDERS = new ConcurrentHashMap<>();
 
   public static <T, R> R replace(T value, Object... values) {
     return Placeholders.replaceFor(value, value, values);
   }
 
   public static <H, T, P, R> R replaceFor(H holder, T value, Object... values) {
-    var placeholderable = (Placeholderable<T, P>) Placeholders.PLACEHOLDERS.get(System.identityHashCode(holder));
+    var placeholderable = (Placeholderable<T, P>) Placeholders.get(holder);
     if (holder instanceof Collection<?> collection) {
       List<T> result = new ArrayList<>(collection.size());
       for (Object entry : collection) {
         if (placeholderable == null) {
-          placeholderable = (Placeholderable<T, P>) Placeholders.PLACEHOLDERS.get(System.identityHashCode(entry));
+          placeholderable = (Placeholderable<T, P>) Placeholders.get(entry);
         }
 
         if (placeholderable == null) {
@@ -55,98 +61,256 @@ public class Placeholders {
     } else if (placeholderable == null) {
       throw new IllegalStateException("Invalid input!");
     } else {
+      PlaceholderTemplate template = placeholderable.template;
+      if (template != null && value == holder) {
+        return (R) template.replace((String) value, values);
+      }
+
       return (R) placeholderable.replacer.replace(value, placeholderable.placeholders, values);
     }
   }
 
+  /**
+   * Appends the replaced value to the destination, strings with the default replacer are appended without building the replaced string.
+   */
+  public static void replaceTo(Appendable destination, Object value, Object... values) throws IOException {
+    Placeholderable<Object, Object> placeholderable = Placeholders.getRenderable(value);
+    PlaceholderTemplate template = placeholderable.template;
+    if (template == null) {
+      destination.append(String.valueOf(placeholderable.replacer.replace(value, placeholderable.placeholders, values)));
+    } else {
+      template.appendTo(destination, (String) value, values);
+    }
+  }
+
+  public static void replaceTo(StringBuilder destination, Object value, Object... values) {
+    try {
+      Placeholders.replaceTo((Appendable) destination, value, values);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  public static void replaceTo(CharBuffer destination, Object value, Object... values) {
+    try {
+      Placeholders.replaceTo((Appendable) destination, value, values);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Encodes the replaced value to UTF-8 right into the destination.
+   *
+   * @throws java.nio.BufferOverflowException If the destination has not enough space left.
+   */
+  public static void replaceToUtf8(ByteBuffer destination, Object value, Object... values) {
+    Placeholderable<Object, Object> placeholderable = Placeholders.getRenderable(value);
+    PlaceholderTemplate template = placeholderable.template;
+    if (template == null) {
+      PlaceholderTemplate.encodeUtf8(destination, String.valueOf(placeholderable.replacer.replace(value, placeholderable.placeholders, values)));
+    } else {
+      template.encodeUtf8(destination, (String) value, values);
+    }
+  }
+
+  private static Placeholderable<Object, Object> getRenderable(Object value) {
+    if (value instanceof Collection<?>) {
+      throw new IllegalArgumentException("Collections can't be rendered, use Placeholders#replace instead");
+    }
+
+    var placeholderable = (Placeholderable<Object, Object>) Placeholders.get(value);
+    if (placeholderable == null) {
+      throw new IllegalStateException("Invalid input!");
+    }
+
+    return placeholderable;
+  }
+
   public static void addPlaceholders(Object value, PlaceholderReplacer<?, ?> replacer, String... placeholders) {
     Placeholders.addPlaceholders(value, replacer, true, placeholders);
   }
 
   public static void addPlaceholders(Object value, PlaceholderReplacer<?, ?> replacer, boolean wrapWithBraces, String... placeholders) {
-    Placeholders.addPlaceholders(System.identityHashCode(value), replacer, wrapWithBraces, placeholders);
+    Placeholders.PLACEHOLDERS.put(value, new Placeholderable<>(replacer, placeholders, wrapWithBraces, value));
   }
 
+  /**
+   * @deprecated Identity hash codes may collide, use {@link #addPlaceholders(Object, PlaceholderReplacer, String...)}.
+   */
+  @Deprecated
   public static void addPlaceholders(int hash, PlaceholderReplacer<?, ?> replacer, String... placeholders) {
     Placeholders.addPlaceholders(hash, replacer, true, placeholders);
   }
 
+  /**
+   * Registers the placeholders for a live value with the given identity hash code, or for the hash code itself if there is no such value.
+   * The values are found by scanning the registry, and any of them is used if several share the hash code.
+   *
+   * @deprecated Identity hash codes may collide, use {@link #addPlaceholders(Object, PlaceholderReplacer, boolean, String...)}.
+   */
+  @Deprecated
   public static void addPlaceholders(int hash, PlaceholderReplacer<?, ?> replacer, boolean wrapWithBraces, String... placeholders) {
-    Placeholders.PLACEHOLDERS.put(hash, new Placeholderable<>(replacer, placeholders, wrapWithBraces));
+    Object value = Placeholders.PLACEHOLDERS.findKey(hash);
+    if (value == null) {
+      Placeholders.HASHED_PLACEHOLDERS.put(hash, new Placeholderable<>(replacer, placeholders, wrapWithBraces, null));
+    } else {
+      Placeholders.addPlaceholders(value, replacer, wrapWithBraces, placeholders);
+    }
   }
 
   public static void setPlaceholders(Object value, PlaceholderReplacer<?, ?> fallbackReplacer, String... placeholders) {
-    Placeholders.setPlaceholders(System.identityHashCode(value), fallbackReplacer, placeholders);
+    Placeholderable<?, ?> placeholderable = Placeholders.get(value);
+    if (placeholderable == null) {
+      if (fallbackReplacer != null) {
+        Placeholders.addPlaceholders(value, fallbackReplacer, placeholders);
+      }
+    } else {
+      placeholderable.setPlaceholders(placeholders, true, value);
+    }
   }
 
+  /**
+   * @deprecated Identity hash codes may collide, use {@link #setPlaceholders(Object, PlaceholderReplacer, String...)}.
+   */
+  @Deprecated
   public static void setPlaceholders(int hash, PlaceholderReplacer<?, ?> fallbackReplacer, String... placeholders) {
     Placeholders.setPlaceholders(hash, fallbackReplacer, true, placeholders);
   }
 
+  /**
+   * Updates the placeholders registered for the hash code, or for a live value with that identity hash code.
+   *
+   * @deprecated Identity hash codes may collide, use {@link #setPlaceholders(Object, PlaceholderReplacer, String...)}.
+   */
+  @Deprecated
   public static void setPlaceholders(int hash, PlaceholderReplacer<?, ?> fallbackReplacer, boolean wrapWithBraces, String... placeholders) {
-    Placeholderable<?, ?> placeholderable = Placeholders.PLACEHOLDERS.get(hash);
+    Placeholderable<?, ?> placeholderable = Placeholders.HASHED_PLACEHOLDERS.get(hash);
+    if (placeholderable != null) {
+      placeholderable.setPlaceholders(placeholders, wrapWithBraces, null);
+      return;
+    }
+
+    Object value = Placeholders.PLACEHOLDERS.findKey(hash);
+    placeholderable = value == null ? null : Placeholders.PLACEHOLDERS.get(value);
     if (placeholderable == null) {
       if (fallbackReplacer != null) {
         Placeholders.addPlaceholders(hash, fallbackReplacer, placeholders);
       }
     } else {
-      placeholderable.setPlaceholders(placeholders, wrapWithBraces);
+      placeholderable.setPlaceholders(placeholders, wrapWithBraces, value);
     }
   }
 
   public static void removePlaceholders(Object value) {
-    Placeholders.removePlaceholders(System.identityHashCode(value));
+    Placeholders.PLACEHOLDERS.remove(value);
+    if (!Placeholders.HASHED_PLACEHOLDERS.isEmpty()) {
+      Placeholders.HASHED_PLACEHOLDERS.remove(System.identityHashCode(value));
+    }
   }
 
+  /**
+   * @deprecated Identity hash codes may collide, use {@link #removePlaceholders(Object)}.
+   */
+  @Deprecated
   public static void removePlaceholders(int hash) {
-    Placeholders.PLACEHOLDERS.remove(hash);
+    Placeholders.HASHED_PLACEHOLDERS.remove(hash);
+    Object value = Placeholders.PLACEHOLDERS.findKey(hash);
+    if (value != null) {
+      Placeholders.PLACEHOLDERS.remove(value);
+    }
   }
 
   public static boolean hasPlaceholders(Object value) {
-    return Placeholders.hasPlaceholders(System.identityHashCode(value));
+    return Placeholders.get(value) != null;
   }
 
+  /**
+   * @deprecated Identity hash codes may collide, use {@link #hasPlaceholders(Object)}.
+   */
+  @Deprecated
   public static boolean hasPlaceholders(int hash) {
-    return Placeholders.PLACEHOLDERS.containsKey(hash);
+    return Placeholders.getHashed(hash) != null;
   }
 
   public static <P> P[] getPlaceholders(Object value) {
-    return Placeholders.getPlaceholders(System.identityHashCode(value));
+    return Placeholders.getPlaceholders(Placeholders.get(value));
   }
 
+  /**
+   * @deprecated Identity hash codes may collide, use {@link #getPlaceholders(Object)}.
+   */
+  @Deprecated
   public static <P> P[] getPlaceholders(int hash) {
-    var placeholderable = (Placeholderable<?, P>) Placeholders.PLACEHOLDERS.get(hash);
+    return Placeholders.getPlaceholders(Placeholders.getHashed(hash));
+  }
+
+  private static <P> P[] getPlaceholders(Placeholderable<?, ?> placeholderable) {
     if (placeholderable == null) {
       throw new IllegalStateException("Invalid input!");
     } else {
-      return placeholderable.placeholders;
+      return ((Placeholderable<?, P>) placeholderable).placeholders;
     }
   }
 
   public static <T> PlaceholderReplacer<T, ?> getReplacer(T value) {
-    return Placeholders.getReplacer(System.identityHashCode(value));
+    return Placeholders.getReplacer(Placeholders.get(value));
   }
 
-  @SuppressWarnings("unchecked")
+  /**
+   * @deprecated Identity hash codes may collide, use {@link #getReplacer(Object)}.
+   */
+  @Deprecated
   public static <T> PlaceholderReplacer<T, ?> getReplacer(int hash) {
-    var placeholderable = (Placeholderable<T, ?>) Placeholders.PLACEHOLDERS.get(hash);
+    return Placeholders.getReplacer(Placeholders.getHashed(hash));
+  }
+
+  private static <T> PlaceholderReplacer<T, ?> getReplacer(Placeholderable<?, ?> placeholderable) {
     if (placeholderable == null) {
       throw new IllegalStateException("Invalid input!");
     } else {
-      return placeholderable.replacer;
+      return ((Placeholderable<T, ?>) placeholderable).replacer;
+    }
+  }
+
+  /**
+   * Returns the placeholders registered for the value, falling back to the ones registered for its identity hash code.
+   */
+  private static Placeholderable<?, ?> get(Object value) {
+    Placeholderable<?, ?> placeholderable = Placeholders.PLACEHOLDERS.get(value);
+    if (placeholderable == null && !Placeholders.HASHED_PLACEHOLDERS.isEmpty()) {
+      placeholderable = Placeholders.HASHED_PLACEHOLDERS.get(System.identityHashCode(value));
+    }
+
+    return placeholderable;
+  }
+
+  /**
+   * Returns the placeholders registered for the hash code, falling back to the ones of a live value with that identity hash code.
+   */
+  private static Placeholderable<?, ?> getHashed(int hash) {
+    Placeholderable<?, ?> placeholderable = Placeholders.HASHED_PLACEHOLDERS.get(hash);
+    if (placeholderable == null) {
+      Object value = Placeholders.PLACEHOLDERS.findKey(hash);
+      if (value != null) {
+        placeholderable = Placeholders.PLACEHOLDERS.get(value);
+      }
     }
+
+    return placeholderable;
   }
 
   private static class Placeholderable<T, P> {
 
     private final PlaceholderReplacer<T, P> replacer;
     private final Class<P> placeholdersClass;
-    private P[] placeholders;
+    private volatile P[] placeholders;
+    private volatile PlaceholderTemplate template;
 
-    private Placeholderable(PlaceholderReplacer<T, P> replacer, String[] placeholders, boolean wrapWithBraces) {
+    private Placeholderable(PlaceholderReplacer<T, P> replacer, String[] placeholders, boolean wrapWithBraces, @Nullable Object value) {
       this.replacer = replacer;
       this.placeholdersClass = this.determinePlaceholdersClass();
-      this.setPlaceholders(placeholders, wrapWithBraces);
+      this.setPlaceholders(placeholders, wrapWithBraces, value);
     }
 
     private Class<P> determinePlaceholdersClass() {
@@ -160,15 +324,24 @@ public class Placeholders {
       throw new IllegalStateException();
     }
 
-    private void setPlaceholders(String[] placeholders, boolean wrapWithBraces) {
-      this.placeholders = (P[]) Array.newInstance(this.placeholdersClass, placeholders.length);
+    /**
+     * @param value The value to compile the template for, the template isn't kept if the value is null.
+     */
+    private void setPlaceholders(String[] placeholders, boolean wrapWithBraces, @Nullable Object value) {
+      // Published only once filled, replace may run on another thread.
+      P[] transformed = (P[]) Array.newInstance(this.placeholdersClass, placeholders.length);
       for (int i = placeholders.length - 1; i >= 0; --i) {
         String placeholder = placeholders[i];
-        this.placeholders[i] = this.replacer.transformPlaceholder(wrapWithBraces && (placeholder.charAt(0) != '{' || placeholder.charAt(placeholder.length() - 1) != '}')
+        transformed[i] = this.replacer.transformPlaceholder(wrapWithBraces && (placeholder.charAt(0) != '{' || placeholder.charAt(placeholder.length() - 1) != '}')
             ? '{' + placeholder + '}'
             : placeholder
         );
       }
+
+      this.placeholders = transformed;
+      this.template = value instanceof String string && this.replacer.getClass() == DefaultPlaceholderReplacer.class
+          ? PlaceholderTemplate.compile(string, (String[]) transformed)
+          : null;
     }
   }
 }
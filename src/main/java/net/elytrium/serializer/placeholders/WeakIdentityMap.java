@@ -0,0 +1,128 @@
+/*
+ * Copyright (C) 2023 Elytrium
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package net.elytrium.serializer.placeholders;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nullable;
+
+/**
+ * Concurrent map that compares the keys by identity and holds them weakly.
+ * Reads don't take locks, entries of collected keys are removed on the next write.
+ */
+final class WeakIdentityMap<V> {
+
+  private final Map<Object, V> map = new ConcurrentHashMap<>();
+  private final ReferenceQueue<Object> queue = new ReferenceQueue<>();
+
+  V get(Object key) {
+    return this.map.get(new LookupKey(key));
+  }
+
+  void put(Object key, V value) {
+    this.expungeStaleEntries();
+    this.map.put(new WeakKey(key, this.queue), value);
+  }
+
+  void remove(Object key) {
+    this.expungeStaleEntries();
+    this.map.remove(new LookupKey(key));
+  }
+
+  boolean containsKey(Object key) {
+    return this.map.containsKey(new LookupKey(key));
+  }
+
+  /**
+   * Scans the entries for a live key with the given identity hash code, if several keys share it, any of them is returned.
+   */
+  @Nullable
+  Object findKey(int hash) {
+    for (Object key : this.map.keySet()) {
+      if (key.hashCode() == hash) {
+        Object referent = ((WeakKey) key).get();
+        if (referent != null) {
+          return referent;
+        }
+      }
+    }
+
+    return null;
+  }
+
+  private void expungeStaleEntries() {
+    Reference<?> reference;
+    while ((reference = this.queue.poll()) != null) {
+      this.map.remove(reference);
+    }
+  }
+
+  private static Object getReferent(Object key) {
+    return key instanceof WeakKey weakKey ? weakKey.get() : ((LookupKey) key).referent;
+  }
+
+  private static final class WeakKey extends WeakReference<Object> {
+
+    private final int hash;
+
+    private WeakKey(Object referent, ReferenceQueue<Object> queue) {
+      super(referent, queue);
+      this.hash = System.identityHashCode(referent);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      if (other == this) {
+        return true;
+      }
+
+      Object referent = this.get();
+      return referent != null && (other instanceof WeakKey || other instanceof LookupKey) && referent == WeakIdentityMap.getReferent(other);
+    }
+
+    @Override
+    public int hashCode() {
+      return this.hash;
+    }
+  }
+
+  /**
+   * Short-lived key used for lookups, so reads don't create references.
+   */
+  private static final class LookupKey {
+
+    private final Object referent;
+
+    private LookupKey(Object referent) {
+      this.referent = referent;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      return (other instanceof WeakKey || other instanceof LookupKey) && this.referent == WeakIdentityMap.getReferent(other);
+    }
+
+    @Override
+    public int hashCode() {
+      return System.identityHashCode(this.referent);
+    }
+  }
+}
@@ -20,13 +20,27 @@ package net.elytrium.serializer;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import it.unimi.dsi.fastutil.ints.Int2ObjectLinkedOpenHashMap;
 import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
 import it.unimi.dsi.fastutil.ints.IntLinkedOpenHashSet;
+import it.unimi.dsi.fastutil.ints.IntList;
 import it.unimi.dsi.fastutil.longs.LongArrayList;
+import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.StringReader;
 import java.io.StringWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MonitorInfo;
+import java.lang.management.ThreadInfo;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -42,18 +56,38 @@ import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import net.elytrium.serializer.annotations.CollectionType;
 import net.elytrium.serializer.annotations.Comment;
 import net.elytrium.serializer.annotations.CommentValue;
 import net.elytrium.serializer.annotations.Final;
+import net.elytrium.serializer.annotations.GenerateCodec;
 import net.elytrium.serializer.annotations.MapType;
 import net.elytrium.serializer.annotations.NewLine;
 import net.elytrium.serializer.annotations.OverrideNameStyle;
 import net.elytrium.serializer.annotations.RegisterPlaceholders;
 import net.elytrium.serializer.annotations.Serializer;
 import net.elytrium.serializer.annotations.YamlStringStyle;
+import net.elytrium.serializer.codec.RuntimeCodec;
 import net.elytrium.serializer.custom.ClassSerializer;
+import net.elytrium.serializer.custom.PrimitiveCollectionAdapter;
+import net.elytrium.serializer.language.object.AbstractSerializable;
+import net.elytrium.serializer.language.object.JsonSerializable;
 import net.elytrium.serializer.language.object.YamlSerializable;
+import net.elytrium.serializer.language.reader.AbstractReader;
+import net.elytrium.serializer.language.reader.JsonReader;
+import net.elytrium.serializer.language.reader.Token;
+import net.elytrium.serializer.language.reader.YamlReader;
+import net.elytrium.serializer.language.reader.source.CharacterSource;
+import net.elytrium.serializer.language.reader.source.ReaderCharacterSource;
+import net.elytrium.serializer.language.writer.AbstractWriter;
 import net.elytrium.serializer.language.writer.YamlWriter;
 import net.elytrium.serializer.placeholders.DefaultPlaceholderReplacer;
 import net.elytrium.serializer.placeholders.Placeholders;
@@ -76,6 +110,77 @@ class SerializerTest {
     Assertions.assertEquals("2 3", list.get(0));
     Assertions.assertEquals("1", list.get(1));
     Placeholders.removePlaceholders(listWithPlaceholders);
+
+  }
+
+  @Test
+  void testPlaceholderRendering() {
+    // Rendering into buffers gives the same result as replacing.
+    String message = new String("\u00A7a{PLAYER} \u2192 {TARGET}: \uD83D\uDE00".toCharArray());
+    Placeholders.addPlaceholders(message, new DefaultPlaceholderReplacer(), "PLAYER", "TARGET");
+    String expected = Placeholders.replace(message, "\u00FCser", new StringBuilder("target"));
+    StringBuilder builder = new StringBuilder("> ");
+    Placeholders.replaceTo(builder, message, "\u00FCser", new StringBuilder("target"));
+    Assertions.assertEquals("> " + expected, builder.toString());
+    CharBuffer charBuffer = CharBuffer.allocate(64);
+    Placeholders.replaceTo(charBuffer, message, "\u00FCser", "target");
+    Assertions.assertEquals(expected, charBuffer.flip().toString());
+    ByteBuffer byteBuffer = ByteBuffer.allocate(64);
+    Placeholders.replaceToUtf8(byteBuffer, message, "\u00FCser", "target");
+    Assertions.assertArrayEquals(expected.getBytes(StandardCharsets.UTF_8), Arrays.copyOf(byteBuffer.array(), byteBuffer.position()));
+    Placeholders.removePlaceholders(message);
+  }
+
+  @Test
+  void testPlaceholderTemplates() {
+    // Compiled templates replace the same way as the replacer itself.
+    DefaultPlaceholderReplacer replacer = new DefaultPlaceholderReplacer();
+    String[][] cases = {
+        {"{A}{AB}{A} {B}", "{A}", "{AB}", "{B}"},
+        {"{A}{A}{A}", "{A}"},
+        {"no placeholders", "{A}", "{B}"},
+        {"{B} {A}, {B}", "{A}", "{B}"},
+        {"", "{A}"}
+    };
+    for (String[] testCase : cases) {
+      String value = new String(testCase[0].toCharArray());
+      String[] placeholders = Arrays.copyOfRange(testCase, 1, testCase.length);
+      Object[] values = new Object[placeholders.length];
+      for (int i = 0; i < values.length; ++i) {
+        values[i] = i == 1 ? null : "<" + i + ">";
+      }
+
+      Placeholders.addPlaceholders(value, replacer, placeholders);
+      Assertions.assertEquals(replacer.replace(value, placeholders, values.clone()), Placeholders.replace(value, values.clone()));
+      Placeholders.removePlaceholders(value);
+    }
+  }
+
+
+
+  @Test
+  @SuppressWarnings("deprecation")
+  void testHashedPlaceholders() {
+    // The deprecated hash code overloads see the placeholders registered by the reader.
+    PlaceholderSettings settings = new PlaceholderSettings();
+    Assertions.assertTrue(settings.load(new ReaderCharacterSource(new StringReader("message: \"{PLAYER} joined {SERVER}\"\n"))));
+    int hash = System.identityHashCode(settings.message);
+    Assertions.assertTrue(Placeholders.hasPlaceholders(hash));
+    Assertions.assertArrayEquals(new Object[] {"{PLAYER}", "{SERVER}"}, Placeholders.getPlaceholders(hash));
+    Assertions.assertEquals(DefaultPlaceholderReplacer.class, Placeholders.getReplacer(hash).getClass());
+
+    Placeholders.setPlaceholders(hash, null, new String[] {"SERVER", "PLAYER"});
+    Assertions.assertEquals("user joined lobby", Placeholders.replace(settings.message, "lobby", "user"));
+
+    Placeholders.removePlaceholders(hash);
+    Assertions.assertFalse(Placeholders.hasPlaceholders(settings.message));
+    Assertions.assertFalse(Placeholders.hasPlaceholders(hash));
+
+    // Values added by hash code belong to the live value, so removing the value removes them as well.
+    Placeholders.addPlaceholders(hash, new DefaultPlaceholderReplacer(), new String[] {"PLAYER"});
+    Assertions.assertEquals("user joined {SERVER}", Placeholders.replace(settings.message, "user"));
+    Placeholders.removePlaceholders(settings.message);
+    Assertions.assertFalse(Placeholders.hasPlaceholders(hash));
   }
 
   @Test
@@ -201,6 +306,449 @@ class SerializerTest {
     Assertions.assertEquals(testPathField, newSettings.pathField);
   }
 
+  @Test
+  void testJson() throws IOException {
+    Path jsonPath = Files.createTempFile("config", ".json");
+    this.processTempFile(jsonPath);
+
+    JsonSettings settings = new JsonSettings();
+    settings.stringField = "quoted \"value\"\n\\ \u0001 \uD83D\uDE00";
+    settings.longField = Long.MIN_VALUE;
+    settings.doubleField = -1.5E-7;
+    settings.enumField = RegularEnum.FALSE;
+    settings.listField = Arrays.asList(1L, -2L, 3L);
+    settings.save(jsonPath);
+
+    JsonSettings newSettings = new JsonSettings();
+    Assertions.assertEquals(LoadResult.SUCCESS, newSettings.load(jsonPath));
+    Assertions.assertEquals(settings.stringField, newSettings.stringField);
+    Assertions.assertEquals(settings.longField, newSettings.longField);
+    Assertions.assertEquals(settings.doubleField, newSettings.doubleField);
+    Assertions.assertEquals(settings.enumField, newSettings.enumField);
+    Assertions.assertEquals(settings.listField, newSettings.listField);
+    Assertions.assertEquals(settings.mapField, newSettings.mapField);
+    Assertions.assertNull(newSettings.nullField);
+
+    Files.write(jsonPath, ("{\"string-field\":\"a\\u0041\\/\",\"long-field\":1,\"unknown-field\":{\"a\":[true,null,{}]},"
+        + "\"map-field\":{\"b\":-2,},/* comment */\"list-field\":[]}").getBytes(StandardCharsets.UTF_8));
+    Assertions.assertEquals(LoadResult.BACKUP_PREFERRED, newSettings.load(jsonPath));
+    Assertions.assertEquals("aA/", newSettings.stringField);
+    Assertions.assertEquals(1L, newSettings.longField);
+    Assertions.assertEquals(map("b", -2), newSettings.mapField);
+    Assertions.assertTrue(newSettings.listField.isEmpty());
+  }
+
+  @Test
+  void testTokens() {
+    String yaml = "skipped:\n  a:\n    - 1\n  b: c\nlist:\n  - 1\n  - text\nvalue: 2.5\n";
+    String json = "{\"skipped\": {\"a\": [1, 2], \"b\": \"c\"}, \"list\": [1, \"text\"], \"value\": 2.5}";
+    for (AbstractReader reader : new AbstractReader[] {
+        new YamlReader(new BufferedReader(new StringReader(yaml))),
+        new JsonReader(new BufferedReader(new StringReader(json)))
+    }) {
+      Assertions.assertEquals(Token.START_MAP, reader.nextToken());
+      Assertions.assertEquals(Token.KEY, reader.nextToken());
+      Assertions.assertEquals("skipped", reader.getText());
+      Assertions.assertEquals(Token.START_MAP, reader.nextToken());
+      reader.skipChildren();
+      Assertions.assertEquals(Token.END_MAP, reader.currentToken());
+
+      Assertions.assertEquals(Token.KEY, reader.nextToken());
+      Assertions.assertEquals("list", reader.getText());
+      Assertions.assertEquals(Token.START_LIST, reader.nextToken());
+      Assertions.assertEquals(Token.SCALAR, reader.nextToken());
+      Assertions.assertEquals(1L, reader.getLong());
+      Assertions.assertEquals(Token.SCALAR, reader.nextToken());
+      Assertions.assertEquals("text", reader.getText());
+      Assertions.assertEquals(Token.END_LIST, reader.nextToken());
+
+      Assertions.assertEquals(Token.KEY, reader.nextToken());
+      Assertions.assertEquals(Token.SCALAR, reader.nextToken());
+      Assertions.assertEquals(2.5, reader.getDouble());
+      Assertions.assertEquals(Token.END_MAP, reader.nextToken());
+      Assertions.assertEquals(Token.END_DOCUMENT, reader.nextToken());
+    }
+  }
+
+  @Test
+  void testGuessedScalarTypes() {
+    String yaml = "long: 9223372036854775807\noverflow: 9223372036854775808\nexponent: 1e3\nnegative-zero: -0\n"
+        + "version: 1.2.3\nsuffix: 12abc\ncommented: 12 # comment\nspaced: 1 2\nlist:\n  - -5\n  - -1.5\n  - .5\n";
+    Map<?, ?> map = (Map<?, ?>) new YamlReader(new BufferedReader(new StringReader(yaml))).readGuessingType();
+    Assertions.assertEquals(Long.MAX_VALUE, map.get("long"));
+    Assertions.assertEquals(9223372036854775808.0, map.get("overflow"));
+    Assertions.assertEquals(1000.0, map.get("exponent"));
+    Assertions.assertEquals(0L, map.get("negative-zero"));
+    Assertions.assertEquals("1.2.3", map.get("version"));
+    Assertions.assertEquals("12abc", map.get("suffix"));
+    Assertions.assertEquals(12L, map.get("commented"));
+    Assertions.assertEquals("1 2", map.get("spaced"));
+    Assertions.assertEquals(Arrays.asList(-5L, -1.5, 0.5), map.get("list"));
+
+    // Untyped values don't depend on the format.
+    Map<?, ?> yamlMap = (Map<?, ?>) new YamlReader(new BufferedReader(new StringReader("flag: true\nnumber: 1\n"))).readGuessingType();
+    Map<?, ?> jsonMap = (Map<?, ?>) new JsonReader(new BufferedReader(new StringReader("{\"flag\": true, \"number\": 1}"))).readGuessingType();
+    Assertions.assertEquals("true", yamlMap.get("flag"));
+    Assertions.assertEquals(yamlMap, jsonMap);
+
+    Assertions.assertEquals(-0.0, new YamlReader(new BufferedReader(new StringReader("-0"))).readDoubleValue());
+    Assertions.assertEquals(1000L, new YamlReader(new BufferedReader(new StringReader("1000 # comment"))).readLongValue());
+    Assertions.assertThrows(NumberFormatException.class, () -> new YamlReader(new BufferedReader(new StringReader("1.2.3"))).readLong());
+    Assertions.assertThrows(NumberFormatException.class, () -> new YamlReader(new BufferedReader(new StringReader("12abc"))).readDouble());
+
+    SerializerConfig safeConfig = new SerializerConfig.Builder().setSafeMode(true).build();
+    Assertions.assertEquals(0L, new YamlReader(new BufferedReader(new StringReader("12abc")), safeConfig).readLongValue());
+    Assertions.assertEquals(0L, new YamlReader(new BufferedReader(new StringReader("9223372036854775808")), safeConfig).readLongValue());
+    Assertions.assertEquals(0.0, new YamlReader(new BufferedReader(new StringReader("1.2.3")), safeConfig).readDoubleValue());
+    Assertions.assertEquals(-2.5E10, new YamlReader(new BufferedReader(new StringReader("-2.5E+10")), safeConfig).readDoubleValue());
+  }
+
+  @Test
+  void testPrimitiveFieldRanges() {
+    SerializerConfig safeConfig = new SerializerConfig.Builder().setSafeMode(true).build();
+    for (SerializerConfig config : new SerializerConfig[] {
+        SerializerConfig.DEFAULT,
+        new SerializerConfig.Builder().setGeneratedCodecs(false).build(),
+        new SerializerConfig.Builder().setGeneratedCodecs(false).setRuntimeCodecs(true).build()
+    }) {
+      PrimitiveSettings settings = this.readPrimitives(config, "int-field: -2147483648\nshort-field: 32767\nbyte-field: -128\nfloat-field: 3.4028235E38\n");
+      Assertions.assertEquals(Integer.MIN_VALUE, settings.intField);
+      Assertions.assertEquals(Short.MAX_VALUE, settings.shortField);
+      Assertions.assertEquals(Byte.MIN_VALUE, settings.byteField);
+      Assertions.assertEquals(Float.MAX_VALUE, settings.floatField);
+      Assertions.assertEquals(Float.NEGATIVE_INFINITY, this.readPrimitives(config, "float-field: -Infinity\n").floatField);
+
+      String[] outOfRange = {"int-field: 2147483648\n", "short-field: -32769\n", "byte-field: 128\n", "float-field: 1e39\n"};
+      String[] overwritten = {"0 2 3 4.0", "1 0 3 4.0", "1 2 0 4.0", "1 2 3 0.0"};
+      for (int i = 0; i < outOfRange.length; ++i) {
+        String yaml = outOfRange[i];
+        RuntimeException exception = Assertions.assertThrows(RuntimeException.class, () -> this.readPrimitives(config, yaml));
+        Assertions.assertTrue(exception.getCause() instanceof NumberFormatException, yaml);
+        Assertions.assertEquals(overwritten[i], this.readPrimitives(safeConfig, yaml).toString(), yaml);
+      }
+
+      for (String yaml : new String[] {"int-field: null\n", "short-field: null\n", "byte-field: null\n", "float-field: null\n"}) {
+        Assertions.assertThrows(IllegalStateException.class, () -> this.readPrimitives(config, yaml));
+        Assertions.assertThrows(IllegalStateException.class, () -> this.readPrimitives(safeConfig, yaml));
+      }
+    }
+  }
+
+  @Test
+  void testArrays() throws IOException {
+    Path yamlPath = Files.createTempFile("arrays", ".yml");
+    this.processTempFile(yamlPath);
+
+    SerializerConfig config = new SerializerConfig.Builder().registerPrimitiveCollection(new IntListAdapter()).build();
+    ArraySettings settings = new ArraySettings(config);
+    settings.intArray = new int[] { 1, -2, Integer.MAX_VALUE };
+    settings.longArray = new long[] { Long.MIN_VALUE, 0L };
+    settings.doubleArray = new double[] { 0.5, -1.5E-7 };
+    settings.stringArray = new String[] { "a", "b c" };
+    settings.intList = IntArrayList.of(3, 2, 1);
+    settings.save(yamlPath);
+
+    ArraySettings newSettings = new ArraySettings(config);
+    Assertions.assertEquals(LoadResult.SUCCESS, newSettings.load(yamlPath));
+    Assertions.assertArrayEquals(settings.intArray, newSettings.intArray);
+    Assertions.assertArrayEquals(settings.longArray, newSettings.longArray);
+    Assertions.assertArrayEquals(settings.doubleArray, newSettings.doubleArray);
+    Assertions.assertArrayEquals(settings.stringArray, newSettings.stringArray);
+    Assertions.assertArrayEquals(new int[0], newSettings.emptyArray);
+    Assertions.assertEquals(settings.intList, newSettings.intList);
+
+    JsonReader reader = new JsonReader(new BufferedReader(new StringReader("[[1, 2], [], [3]]")));
+    Assertions.assertArrayEquals(new int[][] { { 1, 2 }, { }, { 3 } }, (int[][]) reader.readByType(int[][].class));
+    Assertions.assertThrows(IllegalStateException.class, () -> new JsonReader(new BufferedReader(new StringReader("[true, null]"))).readByType(boolean[].class));
+    Assertions.assertThrows(IllegalStateException.class, () -> new YamlReader(new BufferedReader(new StringReader("- true\n- null\n"))).readByType(boolean[].class));
+  }
+
+  @Test
+  void testGeneratedCodecs() throws IOException {
+    SerializerConfig reflectiveConfig = new SerializerConfig.Builder().setGeneratedCodecs(false).build();
+    Assertions.assertNotNull(SerializerConfig.DEFAULT.getSerializableCodec(Settings.Prepend.class));
+    Assertions.assertNull(SerializerConfig.DEFAULT.getSerializableCodec(Settings.class)); // Registers placeholders.
+    Assertions.assertNull(reflectiveConfig.getSerializableCodec(Settings.Prepend.class));
+    Assertions.assertEquals(this.writeYaml(reflectiveConfig, new Settings.Prepend()), this.writeYaml(SerializerConfig.DEFAULT, new Settings.Prepend()));
+
+    String yaml = this.writeYaml(SerializerConfig.DEFAULT, new Settings.NodeTest.TestNodeSequence("codec", 42));
+    Assertions.assertEquals(this.writeYaml(reflectiveConfig, new Settings.NodeTest.TestNodeSequence("codec", 42)), yaml);
+
+    Settings.NodeTest.TestNodeSequence node = new Settings.NodeTest.TestNodeSequence();
+    new YamlReader(new BufferedReader(new StringReader(yaml)), SerializerConfig.DEFAULT).readSerializableObject(node, Settings.NodeTest.TestNodeSequence.class);
+    this.assertNodeSequence(node, "codec", 42, "value", 10);
+
+    SerializerConfig runtimeConfig = new SerializerConfig.Builder().setGeneratedCodecs(false).setRuntimeCodecs(true).build();
+    Assertions.assertTrue(runtimeConfig.getSerializableCodec(Settings.Prepend.class) instanceof RuntimeCodec);
+    Assertions.assertEquals(this.writeYaml(reflectiveConfig, new Settings()), this.writeYaml(runtimeConfig, new Settings()));
+
+    node = new Settings.NodeTest.TestNodeSequence();
+    new YamlReader(new BufferedReader(new StringReader(yaml)), runtimeConfig).readSerializableObject(node, Settings.NodeTest.TestNodeSequence.class);
+    this.assertNodeSequence(node, "codec", 42, "value", 10);
+  }
+
+  @Test
+  void testCodecNames() throws IOException {
+    // Both would be named SerializerTest_CodecName_Nested_SerializerCodec if '$' was replaced by '_'.
+    SerializerConfig reflectiveConfig = new SerializerConfig.Builder().setGeneratedCodecs(false).build();
+    for (Object value : new Object[] {new CodecName.Nested(), new CodecName_Nested()}) {
+      Assertions.assertEquals(value.getClass().getName() + "_SerializerCodec", SerializerConfig.DEFAULT.getSerializableCodec(value.getClass()).getClass().getName());
+      Assertions.assertEquals(this.writeYaml(reflectiveConfig, value), this.writeYaml(SerializerConfig.DEFAULT, value));
+    }
+  }
+
+  @Test
+  void testNestedParameterTypes() throws ReflectiveOperationException {
+    SerializerConfig config = new SerializerConfig.Builder().build();
+    Type fieldType = NestedGenerics.class.getField("sections").getGenericType();
+    Type listType = config.getParameterType(Map.class, fieldType, 1);
+    Assertions.assertEquals(String.class, config.getParameterType(Map.class, fieldType, 0));
+    Assertions.assertTrue(listType instanceof ParameterizedType);
+    Assertions.assertEquals(List.class, ((ParameterizedType) listType).getRawType());
+    Assertions.assertEquals(CustomSection.class, config.getParameterType(Collection.class, listType, 0));
+    Assertions.assertSame(listType, config.getParameterType(Map.class, fieldType, 1));
+
+    // Resolved through the superclass, the same Map parent is cached separately for each type.
+    Assertions.assertEquals(String.class, config.getParameterType(Map.class, SectionsMap.class, 0));
+    Assertions.assertEquals(listType, config.getParameterType(Map.class, SectionsMap.class, 1));
+    Assertions.assertEquals(Integer.class, config.getParameterType(Map.class, NestedGenerics.class.getField("counts").getGenericType(), 1));
+
+    NestedGenerics settings = new NestedGenerics();
+    new YamlReader(new BufferedReader(new StringReader("sections:\n  first:\n    - string-string-map:\n        a: b\n    - string-string-map:\n        c: d\n  second: []\n")), config)
+        .readSerializableObject(settings, NestedGenerics.class);
+    Assertions.assertEquals(Arrays.asList("first", "second"), new ArrayList<>(settings.sections.keySet()));
+    Assertions.assertEquals(2, settings.sections.get("first").size());
+    Assertions.assertEquals(map("a", "b"), settings.sections.get("first").get(0).stringStringMap);
+    Assertions.assertEquals(map("c", "d"), settings.sections.get("first").get(1).stringStringMap);
+    Assertions.assertTrue(settings.sections.get("second").isEmpty());
+  }
+
+  @Test
+  void testNameStyles() {
+    for (String name : new String[] {"simpleName", "HTTPServer2Port", "snake_case_name", "kebab-case-name", "MACRO_NAME", "\u00FCnicodeName", ""}) {
+      for (NameStyle from : NameStyle.values()) {
+        for (NameStyle to : NameStyle.values()) {
+          Assertions.assertEquals(to.fromMacroCase(from.toMacroCase(name)), from.convert(name, to), from + " -> " + to + ": " + name);
+        }
+      }
+    }
+
+    Assertions.assertEquals("http-server-2-port", SerializerConfig.DEFAULT.toNodeName("httpServer2Port"));
+    Assertions.assertEquals("httpServer2Port", SerializerConfig.DEFAULT.toFieldName("http-server-2-port"));
+  }
+
+  @Test
+  void testConcurrentCaches() throws Exception {
+    SerializerConfig config = new SerializerConfig.Builder().build();
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<Object[]>> results = new ArrayList<>();
+      for (int i = 0; i < 32; ++i) {
+        results.add(executor.submit(() -> new Object[] {
+            config.getAndCacheSerializer(DateSerializer.class),
+            config.getClassDescriptor(Settings.class)
+        }));
+      }
+
+      Object[] first = results.get(0).get();
+      for (Future<Object[]> result : results) {
+        Assertions.assertArrayEquals(first, result.get());
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  void testParallelCacheCreation() throws Exception {
+    // Each serializer waits in its constructor until the other one is being created, which a single cache lock would never allow.
+    SerializerConfig config = new SerializerConfig.Builder().build();
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<ClassSerializer<?, ?>>> results = new ArrayList<>();
+      for (int i = 0; i < 8; ++i) {
+        Class<? extends ClassSerializer<?, ?>> clazz = (i & 1) == 0 ? FirstBlockingSerializer.class : SecondBlockingSerializer.class;
+        results.add(executor.submit(() -> config.getAndCacheSerializer(clazz)));
+      }
+
+      for (int i = 0; i < results.size(); ++i) {
+        Assertions.assertSame(results.get(i & 1).get(), results.get(i).get());
+      }
+
+      Assertions.assertTrue(BlockingSerializer.OVERLAPPED.get());
+      Assertions.assertEquals(2, BlockingSerializer.CREATED.get());
+    } finally {
+      executor.shutdown();
+    }
+
+    RecursiveSerializer.CONFIG.set(config);
+    InvocationTargetException exception = Assertions.assertThrows(InvocationTargetException.class, () -> config.getAndCacheSerializer(RecursiveSerializer.class));
+    Assertions.assertTrue(exception.getCause() instanceof IllegalStateException);
+  }
+
+  @Test
+  void testSynchronizedAccess() throws Exception {
+    int count = 2000;
+    StringBuilder json = new StringBuilder("[");
+    for (int i = 0; i < count; ++i) {
+      json.append(i == 0 ? "" : ", ").append(i);
+    }
+
+    JsonReader reader = new JsonReader(new BufferedReader(new StringReader(json.append(']').toString())));
+    Assertions.assertEquals(Token.START_LIST, reader.nextToken());
+    StringWriter stringWriter = new StringWriter();
+    BufferedWriter bufferedWriter = new BufferedWriter(stringWriter);
+    YamlWriter writer = new YamlWriter(SerializerConfig.DEFAULT, bufferedWriter);
+
+    AtomicInteger readers = new AtomicInteger();
+    AtomicInteger writers = new AtomicInteger();
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<long[]>> results = new ArrayList<>();
+      for (int i = 0; i < 8; ++i) {
+        results.add(executor.submit(() -> {
+          long[] read = new long[count / 8];
+          for (int j = 0; j < read.length; ++j) {
+            read[j] = reader.readSynchronized(synchronizedReader -> {
+              Assertions.assertEquals(1, readers.incrementAndGet());
+              Thread.yield();
+              Assertions.assertEquals(Token.SCALAR, synchronizedReader.nextToken());
+              long value = synchronizedReader.getLong();
+              readers.decrementAndGet();
+              return value;
+            });
+
+            SynchronizedEntry entry = new SynchronizedEntry((int) read[j]);
+            writer.writeSynchronized(synchronizedWriter -> {
+              Assertions.assertEquals(1, writers.incrementAndGet());
+              synchronizedWriter.writeSerializableObject(entry, SynchronizedEntry.class);
+              Thread.yield();
+              writers.decrementAndGet();
+            });
+          }
+
+          return read;
+        }));
+      }
+
+      // Every value is read exactly once, and every written object stays in one piece.
+      boolean[] seen = new boolean[count];
+      for (Future<long[]> result : results) {
+        for (long value : result.get()) {
+          Assertions.assertFalse(seen[(int) value], "Read twice: " + value);
+          seen[(int) value] = true;
+        }
+      }
+
+      Assertions.assertEquals(Token.END_LIST, reader.nextToken());
+      bufferedWriter.flush();
+      String[] lines = Arrays.stream(stringWriter.toString().split("\n")).map(String::trim).filter(line -> !line.isEmpty()).toArray(String[]::new);
+      Assertions.assertEquals(count * 2, lines.length);
+      for (int i = 0; i < lines.length; i += 2) {
+        Assertions.assertTrue(lines[i].startsWith("first: "), lines[i]);
+        Assertions.assertEquals(lines[i].replace("first", "second"), lines[i + 1]);
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  void testNoMonitorsHeldDuringIo() throws IOException {
+    // A monitor held around blocking I/O pins the carrier of a virtual thread.
+    StringWriter stringWriter = new StringWriter();
+    try (BufferedWriter writer = new BufferedWriter(new Writer() {
+
+      @Override
+      public void write(char[] buffer, int offset, int length) {
+        SerializerTest.assertNoSerializerMonitors();
+        stringWriter.write(buffer, offset, length);
+      }
+
+      @Override
+      public void flush() {
+
+      }
+
+      @Override
+      public void close() {
+
+      }
+    }, 16)) {
+      new Settings().save(writer);
+    }
+
+    String yaml = stringWriter.toString();
+    Settings settings = new Settings();
+    Assertions.assertTrue(settings.load(new CharacterSource() {
+
+      private int position;
+
+      @Override
+      public int read(char[] window, int offset, int length) {
+        SerializerTest.assertNoSerializerMonitors();
+        if (this.position == yaml.length()) {
+          return -1;
+        }
+
+        int read = Math.min(Math.min(length, 16), yaml.length() - this.position);
+        yaml.getChars(this.position, this.position + read, window, offset);
+        this.position += read;
+        return read;
+      }
+    }));
+  }
+
+  @Test
+  void testMemoryMappedLoading() throws IOException {
+    SerializerConfig config = new SerializerConfig.Builder().registerPrimitiveCollection(new IntListAdapter()).setMemoryMappedLoading(true).build();
+    Path path = Files.createTempFile("mapped", ".yml");
+    this.processTempFile(path);
+    ArraySettings settings = new ArraySettings(config);
+    settings.intArray = new int[] {1, 2, 3};
+    settings.save(path);
+
+    ArraySettings loaded = new ArraySettings(config);
+    Assertions.assertEquals(LoadResult.SUCCESS, loaded.load(path));
+    Assertions.assertArrayEquals(new int[] {1, 2, 3}, loaded.intArray);
+
+    // Reload writes the file right after reading it, which a mapping would block on Windows.
+    loaded.intArray = null;
+    Assertions.assertEquals(LoadResult.SUCCESS, loaded.reload(path));
+    Assertions.assertArrayEquals(new int[] {1, 2, 3}, loaded.intArray);
+  }
+
+  @Test
+  void testReaderOnlySubclass() {
+    LegacySettings settings = new LegacySettings();
+    Assertions.assertTrue(settings.load(new ReaderCharacterSource(new StringReader("string-field: legacy\nint-field: 7\n"))));
+    Assertions.assertEquals("legacy", settings.stringField);
+    Assertions.assertEquals(7, settings.intField);
+  }
+
+  private static void assertNoSerializerMonitors() {
+    ThreadInfo info = ManagementFactory.getThreadMXBean().getThreadInfo(new long[] {Thread.currentThread().getId()}, true, false)[0];
+    for (MonitorInfo monitor : info.getLockedMonitors()) {
+      // Monitors of java.io classes are not ours to avoid, newer JDKs don't use them anyway.
+      StackTraceElement frame = monitor.getLockedStackFrame();
+      Assertions.assertFalse(frame.getClassName().startsWith("net.elytrium.serializer."), "Monitor held during I/O: " + monitor + " locked at " + frame);
+    }
+  }
+
+  private PrimitiveSettings readPrimitives(SerializerConfig config, String yaml) {
+    PrimitiveSettings settings = new PrimitiveSettings();
+    new YamlReader(new BufferedReader(new StringReader(yaml)), config).readSerializableObject(settings, PrimitiveSettings.class);
+    return settings;
+  }
+
+  private String writeYaml(SerializerConfig config, Object value) throws IOException {
+    StringWriter stringWriter = new StringWriter();
+    BufferedWriter bufferedWriter = new BufferedWriter(stringWriter);
+    new YamlWriter(config, bufferedWriter).writeSerializableObject(value, value.getClass());
+    bufferedWriter.flush();
+    return stringWriter.toString();
+  }
+
   @SuppressWarnings("SameParameterValue")
   private void assertNodeSequence(Settings.NodeTest.TestNodeSequence node, String expectedString, int expectedInteger, String a, int b) {
     Assertions.assertEquals(44, node.ignored);
@@ -620,6 +1168,44 @@ class SerializerTest {
     public final TestListData data = new TestListData(List.of("test"));
   }
 
+  public abstract static class BlockingSerializer extends ClassSerializer<String, String> {
+
+    private static final CountDownLatch STARTED = new CountDownLatch(2);
+    private static final AtomicBoolean OVERLAPPED = new AtomicBoolean();
+    private static final AtomicInteger CREATED = new AtomicInteger();
+
+    protected BlockingSerializer() throws InterruptedException {
+      super(String.class, String.class);
+      BlockingSerializer.CREATED.incrementAndGet();
+      BlockingSerializer.STARTED.countDown();
+      if (BlockingSerializer.STARTED.await(5, TimeUnit.SECONDS)) {
+        BlockingSerializer.OVERLAPPED.set(true);
+      }
+    }
+  }
+
+  public static class FirstBlockingSerializer extends BlockingSerializer {
+
+    public FirstBlockingSerializer() throws InterruptedException {
+    }
+  }
+
+  public static class SecondBlockingSerializer extends BlockingSerializer {
+
+    public SecondBlockingSerializer() throws InterruptedException {
+    }
+  }
+
+  public static class RecursiveSerializer extends ClassSerializer<String, String> {
+
+    private static final AtomicReference<SerializerConfig> CONFIG = new AtomicReference<>();
+
+    public RecursiveSerializer() throws ReflectiveOperationException {
+      super(String.class, String.class);
+      RecursiveSerializer.CONFIG.get().getAndCacheSerializer(RecursiveSerializer.class);
+    }
+  }
+
   public static class DateSerializer extends ClassSerializer<Date, Long> {
 
     public DateSerializer() {
@@ -667,6 +1253,142 @@ class SerializerTest {
     }
   }
 
+  @Comment(@CommentValue("JSON config"))
+  public static class JsonSettings extends JsonSerializable {
+
+    @Comment(value = @CommentValue("Same line comment"), at = Comment.At.SAME_LINE)
+    public String stringField = "";
+
+    public long longField;
+
+    @Comment(value = @CommentValue("Appended comment"), at = Comment.At.APPEND)
+    public double doubleField;
+
+    public RegularEnum enumField = RegularEnum.ENUM_VALUE_1;
+
+    public List<Long> listField = new ArrayList<>();
+
+    public Map<String, Integer> mapField = map("a", 1, "b", 2);
+
+    @Comment(value = @CommentValue("Last comment"), at = Comment.At.APPEND)
+    public String nullField;
+  }
+
+  public static class ArraySettings extends YamlSerializable {
+
+    public int[] intArray;
+
+    public long[] longArray;
+
+    public double[] doubleArray;
+
+    public String[] stringArray;
+
+    public int[] emptyArray = new int[0];
+
+    public IntList intList = new IntArrayList();
+
+    public ArraySettings(SerializerConfig config) {
+      super(config);
+    }
+  }
+
+  public static class PlaceholderSettings extends YamlSerializable {
+
+    @RegisterPlaceholders({"PLAYER", "SERVER"})
+    public String message = "";
+  }
+
+  public static class LegacySettings extends AbstractSerializable {
+
+    public String stringField = "";
+
+    public int intField;
+
+    @Override
+    protected AbstractReader getReader(BufferedReader reader) {
+      return new YamlReader(reader, this.getConfig());
+    }
+
+    @Override
+    protected AbstractWriter getWriter(BufferedWriter writer) {
+      return new YamlWriter(this.getConfig(), writer);
+    }
+  }
+
+  public static class PrimitiveSettings {
+
+    public int intField = 1;
+
+    public short shortField = 2;
+
+    public byte byteField = 3;
+
+    public float floatField = 4.0F;
+
+    @Override
+    public String toString() {
+      return this.intField + " " + this.shortField + " " + this.byteField + " " + this.floatField;
+    }
+  }
+
+  public static class CodecName {
+
+    @GenerateCodec
+    public static class Nested {
+
+      public String nestedField = "nested";
+    }
+  }
+
+  @GenerateCodec
+  @SuppressWarnings("checkstyle:TypeName")
+  public static class CodecName_Nested {
+
+    public int underscoredField = 1;
+  }
+
+  public static class NestedGenerics {
+
+    public Map<String, List<CustomSection>> sections = new LinkedHashMap<>();
+
+    public Map<String, Integer> counts = new LinkedHashMap<>();
+  }
+
+  public static class SectionsMap extends LinkedHashMap<String, List<CustomSection>> {
+
+    private static final long serialVersionUID = 1L;
+  }
+
+  public static class SynchronizedEntry {
+
+    public int first;
+
+    public int second;
+
+    public SynchronizedEntry(int value) {
+      this.first = value;
+      this.second = value;
+    }
+  }
+
+  public static class IntListAdapter extends PrimitiveCollectionAdapter<IntList> {
+
+    public IntListAdapter() {
+      super(IntList.class);
+    }
+
+    @Override
+    public IntList newCollection() {
+      return new IntArrayList();
+    }
+
+    @Override
+    public void readEntry(AbstractReader reader, Field owner, IntList collection) {
+      collection.add(reader.readIntValue(owner));
+    }
+  }
+
   private enum RegularEnum {
 
     ENUM_VALUE_1,
@@ -0,0 +1,162 @@
+/*
+ * Copyright (C) 2023 Elytrium
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package net.elytrium.serializer.descriptor;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.HashMap;
+import java.util.Map;
+import net.elytrium.serializer.SerializerConfig;
+import net.elytrium.serializer.annotations.FallbackNodeNames;
+import net.elytrium.serializer.annotations.Final;
+import net.elytrium.serializer.annotations.Transient;
+import net.elytrium.serializer.language.reader.YamlReader;
+import net.elytrium.serializer.language.writer.YamlWriter;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class ClassDescriptorTest {
+
+  private static final SerializerConfig[] CONFIGS = {
+      SerializerConfig.DEFAULT,
+      new SerializerConfig.Builder().setGeneratedCodecs(false).build(),
+      new SerializerConfig.Builder().setGeneratedCodecs(false).setRuntimeCodecs(true).build()
+  };
+
+  @Test
+  void testFallbackNodeNames() {
+    ClassDescriptor descriptor = SerializerConfig.DEFAULT.getClassDescriptor(Bindings.class);
+    FieldDescriptor node = descriptor.getNode("renamed-field");
+    Assertions.assertNotNull(node);
+    Assertions.assertSame(node, descriptor.getNode("old-name"));
+    Assertions.assertSame(node, descriptor.getNode(new StringBuilder("older-name")));
+    Assertions.assertNull(descriptor.getNode("renamedField"));
+
+    for (SerializerConfig config : ClassDescriptorTest.CONFIGS) {
+      Assertions.assertEquals("current", ClassDescriptorTest.read(config, "renamed-field: current\n").renamedField);
+      Assertions.assertEquals("old", ClassDescriptorTest.read(config, "old-name: old\n").renamedField);
+      Assertions.assertEquals("older", ClassDescriptorTest.read(config, "older-name: older\n").renamedField);
+    }
+  }
+
+  @Test
+  void testFinalAndTransientFields() throws IOException {
+    ClassDescriptor descriptor = SerializerConfig.DEFAULT.getClassDescriptor(Bindings.class);
+    FieldDescriptor finalNode = ClassDescriptorTest.getField(descriptor, "finalField");
+    Assertions.assertTrue(finalNode.isVisible());
+    Assertions.assertFalse(finalNode.isReadable());
+    for (String fieldName : new String[] {"transientField", "annotatedTransientField", "CONSTANT"}) {
+      FieldDescriptor node = ClassDescriptorTest.getField(descriptor, fieldName);
+      Assertions.assertFalse(node.isVisible(), fieldName);
+      Assertions.assertFalse(node.isReadable(), fieldName);
+    }
+
+    String yaml = "final-field: changed\ntransient-field: changed\nannotated-transient-field: changed\nint-field: 5\n";
+    for (SerializerConfig config : ClassDescriptorTest.CONFIGS) {
+      Bindings bindings = ClassDescriptorTest.read(config, yaml);
+      Assertions.assertEquals("final", bindings.finalField);
+      Assertions.assertEquals("transient", bindings.transientField);
+      Assertions.assertEquals("transient", bindings.annotatedTransientField);
+      Assertions.assertEquals(5, bindings.intField);
+      Assertions.assertEquals("constant", Bindings.CONSTANT);
+
+      StringWriter stringWriter = new StringWriter();
+      BufferedWriter writer = new BufferedWriter(stringWriter);
+      new YamlWriter(config, writer).writeSerializableObject(bindings, Bindings.class);
+      writer.flush();
+      String written = stringWriter.toString();
+      Assertions.assertTrue(written.contains("final-field: \"final\""), written);
+      Assertions.assertTrue(written.contains("int-field: 5"), written);
+      Assertions.assertFalse(written.contains("transient"), written);
+      Assertions.assertFalse(written.contains("constant"), written);
+    }
+  }
+
+  @Test
+  void testNodeNameTable() {
+    // "Aa" and "BB" have the same hash code, as do all of their concatenations.
+    Map<String, Integer> indexes = new HashMap<>();
+    indexes.put("AaAa", 0);
+    indexes.put("AaBB", 1);
+    indexes.put("BBAa", 2);
+    indexes.put("", 3);
+    indexes.put("node", 4);
+    NodeNameTable table = new NodeNameTable(indexes);
+    for (Map.Entry<String, Integer> entry : indexes.entrySet()) {
+      Assertions.assertEquals((int) entry.getValue(), table.indexOf(entry.getKey()), entry.getKey());
+      Assertions.assertEquals((int) entry.getValue(), table.indexOf(new StringBuilder(entry.getKey())), entry.getKey());
+    }
+
+    for (String unknown : new String[] {"BBBB", "Aa", "AaAaAa", "nodes", "nod", "Node", "edon", " "}) {
+      Assertions.assertEquals(-1, table.indexOf(unknown), unknown);
+    }
+
+    NodeNameTable empty = new NodeNameTable(new HashMap<>());
+    Assertions.assertEquals(-1, empty.indexOf(""));
+    Assertions.assertEquals(-1, empty.indexOf("node"));
+
+    // The probe has to stop at an empty slot even when the colliding names wrap around the end of the table.
+    Map<String, Integer> colliding = new HashMap<>();
+    String[] parts = {"Aa", "BB"};
+    for (int i = 0; i < 16; ++i) {
+      colliding.put(parts[i & 1] + parts[(i >> 1) & 1] + parts[(i >> 2) & 1] + parts[(i >> 3) & 1], i);
+    }
+
+    NodeNameTable collidingTable = new NodeNameTable(colliding);
+    colliding.forEach((name, index) -> Assertions.assertEquals((int) index, collidingTable.indexOf(name), name));
+    Assertions.assertEquals(-1, collidingTable.indexOf("AaAaAaAb"));
+    Assertions.assertEquals(-1, collidingTable.indexOf("AaAaAaAaAa"));
+  }
+
+  private static FieldDescriptor getField(ClassDescriptor descriptor, String fieldName) {
+    for (FieldDescriptor field : descriptor.getFields()) {
+      if (field.getField().getName().equals(fieldName)) {
+        return field;
+      }
+    }
+
+    throw new IllegalArgumentException(fieldName);
+  }
+
+  private static Bindings read(SerializerConfig config, String yaml) {
+    Bindings bindings = new Bindings();
+    new YamlReader(new BufferedReader(new StringReader(yaml)), config).readSerializableObject(bindings, Bindings.class);
+    return bindings;
+  }
+
+  public static class Bindings {
+
+    public static final String CONSTANT = "constant";
+
+    @FallbackNodeNames({"old-name", "older-name"})
+    public String renamedField = "";
+
+    @Final
+    public String finalField = "final";
+
+    public transient String transientField = "transient";
+
+    @Transient
+    public String annotatedTransientField = "transient";
+
+    public int intField;
+  }
+}
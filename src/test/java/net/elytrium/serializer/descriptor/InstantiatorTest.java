@@ -0,0 +1,147 @@
+/*
+ * Copyright (C) 2023 Elytrium
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package net.elytrium.serializer.descriptor;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class InstantiatorTest {
+
+  @Test
+  void testCache() throws ReflectiveOperationException {
+    Instantiator<PublicClass> instantiator = Instantiator.of(PublicClass.class);
+    Assertions.assertSame(instantiator, Instantiator.of(PublicClass.class));
+    Assertions.assertSame(PublicClass.class, instantiator.getInstantiatedClass());
+    Assertions.assertNotSame(instantiator.newInstance(), instantiator.newInstance());
+  }
+
+  @Test
+  void testStrategies() throws ReflectiveOperationException {
+    InstantiatorTest.assertStrategy("LambdaInstantiator", PublicClass.class);
+    InstantiatorTest.assertStrategy("MethodHandleInstantiator", PrivateConstructor.class);
+    InstantiatorTest.assertStrategy("MethodHandleInstantiator", PackagePrivateClass.class);
+
+    Instantiator<AbstractClass> abstractInstantiator = Instantiator.of(AbstractClass.class);
+    Assertions.assertEquals("ReflectiveInstantiator", abstractInstantiator.getClass().getSimpleName());
+    Assertions.assertThrows(InstantiationException.class, abstractInstantiator::newInstance);
+
+    Instantiator<MissingConstructor> missingInstantiator = Instantiator.of(MissingConstructor.class);
+    Assertions.assertFalse(missingInstantiator.isAvailable());
+    Assertions.assertThrows(NoSuchMethodException.class, missingInstantiator::newInstance);
+  }
+
+  @Test
+  void testInvisibleClass() throws IOException, ReflectiveOperationException {
+    // The same class defined by an unrelated class loader can't be linked from a supplier spun in our one.
+    URL location = PublicClass.class.getProtectionDomain().getCodeSource().getLocation();
+    try (URLClassLoader classLoader = new URLClassLoader(new URL[] {location}, null)) {
+      Class<?> invisibleClass = classLoader.loadClass(PublicClass.class.getName());
+      Assertions.assertNotSame(PublicClass.class, invisibleClass);
+      InstantiatorTest.assertStrategy("MethodHandleInstantiator", invisibleClass);
+    }
+  }
+
+  @Test
+  void testConstructorExceptions() {
+    for (Class<? extends Throwing> clazz : Arrays.asList(ThrowingPublicClass.class, ThrowingPrivateConstructor.class)) {
+      Instantiator<? extends Throwing> instantiator = Instantiator.of(clazz);
+
+      Throwing.CALLS.set(0);
+      Throwing.ERROR.set(null);
+      InvocationTargetException exception = Assertions.assertThrows(InvocationTargetException.class, instantiator::newInstance);
+      Assertions.assertTrue(exception.getCause() instanceof IllegalStateException, clazz.getName());
+      Assertions.assertEquals(1, Throwing.CALLS.get(), clazz.getName());
+
+      // Errors of the constructor are not mistaken for linkage failures of the supplier, and the constructor isn't run again.
+      Throwing.CALLS.set(0);
+      Throwing.ERROR.set(new NoClassDefFoundError("thrown by the constructor"));
+      Assertions.assertSame(Throwing.ERROR.get(), Assertions.assertThrows(NoClassDefFoundError.class, instantiator::newInstance));
+      Assertions.assertEquals(1, Throwing.CALLS.get(), clazz.getName());
+    }
+  }
+
+  private static void assertStrategy(String expected, Class<?> clazz) throws ReflectiveOperationException {
+    Instantiator<?> instantiator = Instantiator.of(clazz);
+    Assertions.assertEquals(expected, instantiator.getClass().getSimpleName(), clazz.getName());
+    Assertions.assertTrue(instantiator.isAvailable(), clazz.getName());
+    Assertions.assertSame(clazz, instantiator.newInstance().getClass());
+  }
+
+  public static class PublicClass {
+
+  }
+
+  public static class PrivateConstructor {
+
+    private PrivateConstructor() {
+
+    }
+  }
+
+  static class PackagePrivateClass {
+
+  }
+
+  public abstract static class AbstractClass {
+
+  }
+
+  public static class MissingConstructor {
+
+    public MissingConstructor(String value) {
+
+    }
+  }
+
+  public static class Throwing {
+
+    static final AtomicInteger CALLS = new AtomicInteger();
+    static final AtomicReference<Error> ERROR = new AtomicReference<>();
+
+    Throwing() {
+      Throwing.CALLS.incrementAndGet();
+      Error error = Throwing.ERROR.get();
+      if (error != null) {
+        throw error;
+      }
+
+      throw new IllegalStateException("thrown by the constructor");
+    }
+  }
+
+  public static class ThrowingPublicClass extends Throwing {
+
+    public ThrowingPublicClass() {
+      super();
+    }
+  }
+
+  public static class ThrowingPrivateConstructor extends Throwing {
+
+    private ThrowingPrivateConstructor() {
+      super();
+    }
+  }
+}
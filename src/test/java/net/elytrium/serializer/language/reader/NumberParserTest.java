@@ -0,0 +1,135 @@
+/*
+ * Copyright (C) 2023 Elytrium
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package net.elytrium.serializer.language.reader;
+
+import java.util.Random;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class NumberParserTest {
+
+  private final NumberParser parser = new NumberParser();
+
+  @Test
+  void testLongBounds() {
+    this.assertLong("9223372036854775807", Long.MAX_VALUE);
+    this.assertLong("-9223372036854775808", Long.MIN_VALUE);
+    this.assertLong("+42", 42L);
+    this.assertLong("007", 7L);
+
+    // Past the long range the value is still a number, read as double.
+    for (String value : new String[] {"9223372036854775808", "-9223372036854775809", "123456789012345678901234567890"}) {
+      Assertions.assertFalse(this.parser.parse(value).isLong(), value);
+      Assertions.assertTrue(this.parser.isNumber(), value);
+      Assertions.assertEquals(Double.parseDouble(value), this.parser.doubleValue(), value);
+    }
+  }
+
+  @Test
+  void testMantissaDigitLimit() {
+    // 18 digits are kept in the mantissa, the 19th and further ones only shift the exponent.
+    this.assertLong("123456789012345678", 123456789012345678L);
+    this.assertLong("1234567890123456789", 1234567890123456789L);
+    for (String value : new String[] {
+        "1234567890123456789", "1234567890123456789.5", "0.1234567890123456789", "9007199254740993",
+        "123456789012345678000", "1000000000000000000000000", "0.0000000000000000001234"
+    }) {
+      Assertions.assertEquals(Double.parseDouble(value), this.parser.parse(value).doubleValue(), value);
+    }
+  }
+
+  @Test
+  void testExponents() {
+    for (String value : new String[] {"1e3", "1E3", "1.5e-7", "-2.5E+10", "1.e2", ".5e1", "1e22", "1e23", "9e37", "1e308", "2e308", "1e-400", "4.9e-324"}) {
+      Assertions.assertTrue(this.parser.parse(value).isNumber(), value);
+      Assertions.assertFalse(this.parser.isLong(), value);
+      Assertions.assertEquals(Double.parseDouble(value), this.parser.doubleValue(), value);
+    }
+  }
+
+  @Test
+  void testNegativeZero() {
+    this.assertLong("-0", 0L);
+    Assertions.assertEquals(-0.0, this.parser.doubleValue());
+    Assertions.assertEquals(-0.0, this.parser.parse("-0.0").doubleValue());
+    Assertions.assertEquals(-0.0, this.parser.parse("-0e5").doubleValue());
+    Assertions.assertEquals(0.0, this.parser.parse("0.000").doubleValue());
+  }
+
+  @Test
+  void testSpecialValues() {
+    Assertions.assertTrue(this.parser.parse("NaN").isSpecial());
+    Assertions.assertTrue(Double.isNaN(this.parser.doubleValue()));
+    Assertions.assertEquals(Double.NEGATIVE_INFINITY, this.parser.parse("-Infinity").doubleValue());
+    Assertions.assertEquals(Double.POSITIVE_INFINITY, this.parser.parse("+Infinity").doubleValue());
+    Assertions.assertFalse(this.parser.parse("-NaN").isSpecial());
+    Assertions.assertFalse(this.parser.parse("Infinite").isSpecial());
+  }
+
+  @Test
+  void testNotNumbers() {
+    for (String value : new String[] {"1.2.3", "12abc", "1e", "1e+", "-", "+", ".", ".e1", "1-2", "0x10", "1_000", "--1", "1 2", "", "e5"}) {
+      Assertions.assertFalse(this.parser.parse(value).isNumber(), value);
+      Assertions.assertFalse(this.parser.isLong(), value);
+      Assertions.assertFalse(this.parser.isSpecial(), value);
+    }
+  }
+
+  @Test
+  void testTrailingWhitespace() {
+    this.parser.reset();
+    "12".chars().forEach(character -> this.parser.append((char) character));
+    this.parser.appendWhitespace(' ');
+    this.parser.appendWhitespace('\t');
+    Assertions.assertTrue(this.parser.isLong());
+    Assertions.assertEquals("12", this.parser.toString());
+
+    this.parser.append('3');
+    Assertions.assertFalse(this.parser.isNumber());
+    Assertions.assertEquals("12 \t3", this.parser.toString());
+  }
+
+  @Test
+  void testMatchesDoubleParsing() {
+    Random random = new Random(0);
+    for (int i = 0; i < 100000; ++i) {
+      StringBuilder builder = new StringBuilder();
+      if (random.nextBoolean()) {
+        builder.append('-');
+      }
+
+      builder.append(random.nextInt(100000));
+      if (random.nextBoolean()) {
+        builder.append('.').append(Math.abs(random.nextLong()));
+      }
+
+      if (random.nextInt(4) == 0) {
+        builder.append('e').append(random.nextInt(700) - 350);
+      }
+
+      String value = builder.toString();
+      Assertions.assertEquals(Double.parseDouble(value), this.parser.parse(value).doubleValue(), value);
+    }
+  }
+
+  private void assertLong(String value, long expected) {
+    Assertions.assertTrue(this.parser.parse(value).isLong(), value);
+    Assertions.assertEquals(expected, this.parser.longValue(), value);
+    Assertions.assertEquals(Double.parseDouble(value), this.parser.doubleValue(), value);
+  }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2023 Elytrium
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package net.elytrium.serializer.language.reader;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.Map;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class SeekBufferTest {
+
+  @Test
+  void testWrapAround() {
+    SeekBuffer buffer = new SeekBuffer();
+    // The positions pass the initial capacity many times without the ring growing.
+    for (int round = 0; round < 20; ++round) {
+      buffer.mark();
+      for (int i = 0; i < 40; ++i) {
+        buffer.record((char) ('a' + (round + i) % 26));
+      }
+
+      buffer.reset();
+      for (int i = 0; i < 40; ++i) {
+        Assertions.assertTrue(buffer.hasPending());
+        Assertions.assertEquals((char) ('a' + (round + i) % 26), buffer.next());
+      }
+
+      Assertions.assertFalse(buffer.hasPending());
+    }
+  }
+
+  @Test
+  void testGrowth() {
+    SeekBuffer buffer = new SeekBuffer();
+    buffer.mark();
+    buffer.record('-');
+    buffer.reset();
+    Assertions.assertEquals('-', buffer.next());
+
+    // Grows while the served chars are not at the start of the array.
+    buffer.mark();
+    for (int i = 0; i < 1000; ++i) {
+      buffer.record((char) i);
+    }
+
+    buffer.reset();
+    for (int i = 0; i < 1000; ++i) {
+      Assertions.assertEquals((char) i, buffer.next());
+    }
+
+    Assertions.assertFalse(buffer.hasPending());
+  }
+
+  @Test
+  void testMarkDuringReplay() {
+    SeekBuffer buffer = new SeekBuffer();
+    buffer.mark();
+    "abcdef".chars().forEach(character -> buffer.record((char) character));
+    buffer.reset();
+    Assertions.assertEquals('a', buffer.next());
+    Assertions.assertEquals('b', buffer.next());
+
+    // The pending chars stay in place when a new mark starts in the middle of the replay.
+    buffer.mark();
+    Assertions.assertEquals('c', buffer.next());
+    Assertions.assertEquals('d', buffer.next());
+    buffer.reset();
+    Assertions.assertEquals('c', buffer.next());
+    buffer.clearMark();
+    Assertions.assertEquals('d', buffer.next());
+    Assertions.assertEquals('e', buffer.next());
+    Assertions.assertEquals('f', buffer.next());
+    Assertions.assertFalse(buffer.hasPending());
+    Assertions.assertFalse(buffer.isMarked());
+  }
+
+  @Test
+  void testUnreadAndMarkFrom() {
+    SeekBuffer buffer = new SeekBuffer();
+    buffer.unread('x');
+    Assertions.assertTrue(buffer.hasPending());
+    Assertions.assertEquals('x', buffer.next());
+
+    buffer.markFrom('q');
+    Assertions.assertTrue(buffer.isMarked());
+    buffer.record('r');
+    buffer.record('s');
+    buffer.reset();
+    Assertions.assertEquals('q', buffer.next());
+    Assertions.assertEquals('r', buffer.next());
+    Assertions.assertEquals('s', buffer.next());
+    Assertions.assertFalse(buffer.hasPending());
+  }
+
+  @Test
+  void testUntypedScalarsKeepAllChars() {
+    YamlReader reader = new YamlReader(new BufferedReader(new StringReader("name: nothing\nother: n\nlast: nonsense value\n")));
+    Map<?, ?> map = (Map<?, ?>) reader.readGuessingType();
+    Assertions.assertEquals("nothing", map.get("name"));
+    Assertions.assertEquals("n", map.get("other"));
+    Assertions.assertEquals("nonsense value", map.get("last"));
+  }
+}
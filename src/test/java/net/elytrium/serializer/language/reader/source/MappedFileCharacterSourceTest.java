@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2023 Elytrium
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package net.elytrium.serializer.language.reader.source;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class MappedFileCharacterSourceTest {
+
+  @Test
+  void testSequencesSplitAcrossWindows() throws IOException {
+    // 1, 2, 3 and 4 byte sequences, shifted by one byte each time, so every split position is hit for every window size.
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < 64; ++i) {
+      builder.append("a\u00FC\u20AC\uD83D\uDE00".repeat(i % 3 + 1)).append('b');
+    }
+
+    String expected = builder.toString();
+    Path path = Files.createTempFile("mapped", ".yml");
+    // The mappings are released only when collected, so the file can't be deleted right away on Windows.
+    path.toFile().deleteOnExit();
+    Files.write(path, expected.getBytes(StandardCharsets.UTF_8));
+    for (long mappingWindow = 4; mappingWindow <= 13; ++mappingWindow) {
+      for (int length = 1; length <= 4; ++length) {
+        try (MappedFileCharacterSource source = new MappedFileCharacterSource(FileChannel.open(path, StandardOpenOption.READ), mappingWindow)) {
+          Assertions.assertEquals(expected, MappedFileCharacterSourceTest.readAll(source, length), "Window " + mappingWindow + ", length " + length);
+        }
+      }
+    }
+
+    try (MappedFileCharacterSource source = MappedFileCharacterSource.open(path)) {
+      Assertions.assertEquals(expected, MappedFileCharacterSourceTest.readAll(source, 8192));
+    }
+  }
+
+  @Test
+  void testInvalidMappingWindow() throws IOException {
+    Path path = Files.createTempFile("mapped", ".yml");
+    try {
+      Assertions.assertThrows(IllegalArgumentException.class, () -> MappedFileCharacterSource.open(path, 3));
+      try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new MappedFileCharacterSource(channel, 3));
+        Assertions.assertTrue(channel.isOpen());
+      }
+    } finally {
+      Files.delete(path);
+    }
+  }
+
+  private static String readAll(CharacterSource source, int length) throws IOException {
+    StringBuilder result = new StringBuilder();
+    char[] window = new char[length];
+    int read;
+    while ((read = source.read(window, 0, length)) != -1) {
+      result.append(window, 0, read);
+    }
+
+    return result.toString();
+  }
+}
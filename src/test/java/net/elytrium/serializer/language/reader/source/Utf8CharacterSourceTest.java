@@ -0,0 +1,189 @@
+/*
+ * Copyright (C) 2023 Elytrium
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package net.elytrium.serializer.language.reader.source;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.MalformedInputException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class Utf8CharacterSourceTest {
+
+  private static final int[] READ_LENGTHS = {1, 2, 3, 8192};
+
+  @Test
+  void testMalformedSequences() throws IOException {
+    int[][] inputs = {
+        {0xC0, 0x80}, // Overlong U+0000.
+        {0xED, 0xA0, 0x80}, // High surrogate.
+        {0xF4, 0x90, 0x80, 0x80}, // Above U+10FFFF.
+        {0xE2, 0x82}, // Truncated at the end of input.
+        {0xE0, 0x80, 0x80},
+        {0xF0, 0x80, 0x80, 0x80},
+        {0xF5, 0x80, 0x80, 0x80},
+        {0x80},
+        {0xC2},
+        {0xC2, 0x41},
+        {0xE2, 0x41, 0x80},
+        {0xF0, 0x9F, 0x98}
+    };
+    for (int[] input : inputs) {
+      byte[] bytes = Utf8CharacterSourceTest.toBytes(input);
+      Utf8CharacterSourceTest.assertDecodesLikeJdk(bytes);
+      // The same sequences after some ASCII, so they are split across the refills of small buffers.
+      for (int prefix = 1; prefix <= 3; ++prefix) {
+        byte[] prefixed = new byte[prefix + bytes.length];
+        Arrays.fill(prefixed, 0, prefix, (byte) 'a');
+        System.arraycopy(bytes, 0, prefixed, prefix, bytes.length);
+        Utf8CharacterSourceTest.assertDecodesLikeJdk(prefixed);
+      }
+    }
+  }
+
+  @Test
+  void testBoundaryCodePoints() throws IOException {
+    int[] codePoints = {0x00, 0x7F, 0x80, 0x7FF, 0x800, 0xD7FF, 0xE000, 0xFFFD, 0xFFFF, 0x10000, 0x1F600, 0x10FFFF};
+    StringBuilder builder = new StringBuilder();
+    for (int codePoint : codePoints) {
+      builder.appendCodePoint(codePoint).append('a');
+    }
+
+    byte[] bytes = builder.toString().getBytes(StandardCharsets.UTF_8);
+    for (int offset = 0; offset < 4; ++offset) {
+      Utf8CharacterSourceTest.assertDecodesLikeJdk(Arrays.copyOfRange(bytes, offset, bytes.length));
+    }
+  }
+
+  @Test
+  void testRandomInput() throws IOException {
+    Random random = new Random(0);
+    for (int i = 0; i < 500; ++i) {
+      byte[] bytes;
+      if ((i & 1) == 0) {
+        StringBuilder builder = new StringBuilder();
+        for (int j = random.nextInt(32); j >= 0; --j) {
+          int codePoint = random.nextInt(Character.MAX_CODE_POINT + 1);
+          if (codePoint < Character.MIN_SURROGATE || codePoint > Character.MAX_SURROGATE) {
+            builder.appendCodePoint(codePoint);
+          }
+        }
+
+        bytes = builder.toString().getBytes(StandardCharsets.UTF_8);
+      } else {
+        // Mostly valid input with a few bytes flipped.
+        bytes = "a\u00FC\u20AC\uD83D\uDE00b".repeat(4).getBytes(StandardCharsets.UTF_8);
+        bytes[random.nextInt(bytes.length)] = (byte) random.nextInt(256);
+      }
+
+      Utf8CharacterSourceTest.assertDecodesLikeJdk(bytes);
+    }
+  }
+
+  @Test
+  void testInvalidBufferSize() {
+    Assertions.assertThrows(IllegalArgumentException.class, () -> new Utf8CharacterSource(new ByteArrayInputStream(new byte[0]), 3));
+  }
+
+  private static void assertDecodesLikeJdk(byte[] bytes) throws IOException {
+    String expected = Utf8CharacterSourceTest.decodeWithJdk(bytes);
+    String input = Arrays.toString(bytes);
+    for (int length : Utf8CharacterSourceTest.READ_LENGTHS) {
+      for (Utf8CharacterSource source : Utf8CharacterSourceTest.createSources(bytes)) {
+        Assertions.assertEquals(expected, Utf8CharacterSourceTest.readAll(source, length), input + ", length " + length);
+      }
+    }
+  }
+
+  private static List<Utf8CharacterSource> createSources(byte[] bytes) {
+    List<Utf8CharacterSource> sources = new ArrayList<>();
+    sources.add(new Utf8CharacterSource(bytes));
+    ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+    direct.put(bytes).flip();
+    sources.add(new Utf8CharacterSource(direct));
+    sources.add(new Utf8CharacterSource(new ByteArrayInputStream(bytes), 4));
+    sources.add(new Utf8CharacterSource(new ByteArrayInputStream(bytes), 5));
+    sources.add(new Utf8CharacterSource(new TrickleInputStream(bytes), 4));
+    return sources;
+  }
+
+  private static String decodeWithJdk(byte[] bytes) {
+    try {
+      return StandardCharsets.UTF_8.newDecoder().decode(ByteBuffer.wrap(bytes)).toString();
+    } catch (CharacterCodingException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Returns null if the input is malformed.
+   */
+  private static String readAll(CharacterSource source, int length) throws IOException {
+    StringBuilder result = new StringBuilder();
+    char[] window = new char[length];
+    int read;
+    try {
+      while ((read = source.read(window, 0, length)) != -1) {
+        result.append(window, 0, read);
+      }
+    } catch (MalformedInputException e) {
+      return null;
+    }
+
+    return result.toString();
+  }
+
+  private static byte[] toBytes(int[] values) {
+    byte[] bytes = new byte[values.length];
+    for (int i = 0; i < values.length; ++i) {
+      bytes[i] = (byte) values[i];
+    }
+
+    return bytes;
+  }
+
+  /**
+   * Returns a single byte per read call, as sockets and pipes may do.
+   */
+  private static class TrickleInputStream extends InputStream {
+
+    private final ByteArrayInputStream stream;
+
+    private TrickleInputStream(byte[] bytes) {
+      this.stream = new ByteArrayInputStream(bytes);
+    }
+
+    @Override
+    public int read() {
+      return this.stream.read();
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) {
+      return this.stream.read(bytes, offset, Math.min(length, 1));
+    }
+  }
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright (C) 2023 Elytrium
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package net.elytrium.serializer.placeholders;
+
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class PlaceholdersTest {
+
+  @Test
+  void testIdentityKeys() {
+    String value = new String("{A}".toCharArray());
+    String equalValue = new String("{A}".toCharArray());
+    Placeholders.addPlaceholders(value, new DefaultPlaceholderReplacer(), "A");
+    Assertions.assertTrue(Placeholders.hasPlaceholders(value));
+    Assertions.assertFalse(Placeholders.hasPlaceholders(equalValue));
+    Placeholders.removePlaceholders(value);
+    Assertions.assertFalse(Placeholders.hasPlaceholders(value));
+  }
+
+  @Test
+  void testNoStrongKeyReferences() throws ReflectiveOperationException {
+    String value = new String("{A} {B}".toCharArray());
+    Placeholders.addPlaceholders(value, new DefaultPlaceholderReplacer(), "A", "B");
+    try {
+      Field registryField = Placeholders.class.getDeclaredField("PLACEHOLDERS");
+      registryField.setAccessible(true);
+      Field mapField = WeakIdentityMap.class.getDeclaredField("map");
+      mapField.setAccessible(true);
+      Map<?, ?> map = (Map<?, ?>) mapField.get(registryField.get(null));
+
+      // Keys only refer to the value weakly, and nothing else in the registry refers to it.
+      for (Map.Entry<?, ?> entry : map.entrySet()) {
+        Assertions.assertTrue(entry.getKey() instanceof WeakReference<?>, entry.getKey().getClass().getName());
+        PlaceholdersTest.assertNotReachable(value, entry.getKey());
+        PlaceholdersTest.assertNotReachable(value, entry.getValue());
+      }
+    } finally {
+      Placeholders.removePlaceholders(value);
+    }
+  }
+
+  @Test
+  void testIdentityHashCollision() {
+    String[] colliding = PlaceholdersTest.findCollidingValues("{A} {B}");
+    Assertions.assertEquals(System.identityHashCode(colliding[0]), System.identityHashCode(colliding[1]));
+
+    WeakIdentityMap<Integer> map = new WeakIdentityMap<>();
+    map.put(colliding[0], 0);
+    map.put(colliding[1], 1);
+    Assertions.assertEquals(0, map.get(colliding[0]));
+    Assertions.assertEquals(1, map.get(colliding[1]));
+    map.remove(colliding[0]);
+    Assertions.assertFalse(map.containsKey(colliding[0]));
+    Assertions.assertEquals(1, map.get(colliding[1]));
+
+    Placeholders.addPlaceholders(colliding[0], new DefaultPlaceholderReplacer(), "A");
+    Placeholders.addPlaceholders(colliding[1], new DefaultPlaceholderReplacer(), "B");
+    try {
+      Assertions.assertEquals("x {B}", Placeholders.replace(colliding[0], "x"));
+      Assertions.assertEquals("{A} x", Placeholders.replace(colliding[1], "x"));
+      Placeholders.removePlaceholders(colliding[0]);
+      Assertions.assertFalse(Placeholders.hasPlaceholders(colliding[0]));
+      Assertions.assertEquals("{A} x", Placeholders.replace(colliding[1], "x"));
+    } finally {
+      Placeholders.removePlaceholders(colliding[0]);
+      Placeholders.removePlaceholders(colliding[1]);
+    }
+  }
+
+  @Test
+  void testConcurrentReplace() throws Exception {
+    String value = new String("{A} {B}".toCharArray());
+    DefaultPlaceholderReplacer replacer = new DefaultPlaceholderReplacer();
+    Placeholders.addPlaceholders(value, replacer, "A", "B");
+    AtomicBoolean running = new AtomicBoolean(true);
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<?>> writers = new ArrayList<>();
+      for (int i = 0; i < 4; ++i) {
+        writers.add(executor.submit(() -> {
+          for (int j = 0; j < 5000; ++j) {
+            // Reloads swap the placeholders while other values come and go.
+            Placeholders.setPlaceholders(value, replacer, (j & 1) == 0 ? new String[] {"B", "A"} : new String[] {"A", "B"});
+            String other = new String("{A}".toCharArray());
+            Placeholders.addPlaceholders(other, replacer, "A");
+            Assertions.assertEquals("x", Placeholders.replace(other, "x"));
+            Placeholders.removePlaceholders(other);
+          }
+        }));
+      }
+
+      List<Future<?>> readers = new ArrayList<>();
+      for (int i = 0; i < 4; ++i) {
+        readers.add(executor.submit(() -> {
+          while (running.get()) {
+            String result = Placeholders.replace(value, "1", "2");
+            Assertions.assertTrue(result.equals("1 2") || result.equals("2 1"), result);
+          }
+        }));
+      }
+
+      try {
+        for (Future<?> writer : writers) {
+          writer.get();
+        }
+      } finally {
+        running.set(false);
+      }
+
+      for (Future<?> reader : readers) {
+        reader.get();
+      }
+    } finally {
+      executor.shutdown();
+      Placeholders.removePlaceholders(value);
+    }
+  }
+
+  private static String[] findCollidingValues(String value) {
+    Map<Integer, String> values = new HashMap<>();
+    for (int i = 0; i < 10_000_000; ++i) {
+      String candidate = new String(value.toCharArray());
+      String previous = values.putIfAbsent(System.identityHashCode(candidate), candidate);
+      if (previous != null) {
+        return new String[] {previous, candidate};
+      }
+    }
+
+    throw new IllegalStateException("No identity hash code collision found");
+  }
+
+  /**
+   * Walks the objects of this package reachable from the root, the JDK classes are not walked into.
+   */
+  private static void assertNotReachable(Object target, Object root) throws IllegalAccessException {
+    Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+    Deque<Object> queue = new ArrayDeque<>();
+    queue.add(root);
+    while (!queue.isEmpty()) {
+      Object current = queue.poll();
+      Assertions.assertNotSame(target, current);
+      if (!visited.add(current)) {
+        continue;
+      }
+
+      Class<?> clazz = current.getClass();
+      if (clazz.isArray()) {
+        if (!clazz.getComponentType().isPrimitive()) {
+          for (int i = Array.getLength(current) - 1; i >= 0; --i) {
+            Object element = Array.get(current, i);
+            if (element != null) {
+              queue.add(element);
+            }
+          }
+        }
+
+        continue;
+      }
+
+      for (; clazz != null && clazz.getPackage() == Placeholders.class.getPackage(); clazz = clazz.getSuperclass()) {
+        for (Field field : clazz.getDeclaredFields()) {
+          if (!Modifier.isStatic(field.getModifiers()) && !field.getType().isPrimitive()) {
+            field.setAccessible(true);
+            Object fieldValue = field.get(current);
+            if (fieldValue != null) {
+              queue.add(fieldValue);
+            }
+          }
+        }
+      }
+    }
+  }
+}